@@ -0,0 +1,92 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 영속성 컨텍스트에 회원 10만 명이 있을 때 flush 시간, 로딩 시 할당량(-prof gc : gc.alloc.rate.norm)
+ * 바이트코드 향상(기본) vs 스냅샷 비교 : ./gradlew jmh -PnoEnhance -Pjmh.includes=DirtyCheckingBenchmark
+ * <p>
+ * flush : 1% 만 변경, 나머지는 변경 감지 대상이지만 변경 없음
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DirtyCheckingBenchmark {
+
+    static final int MEMBERS = 100_000;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+
+    EntityManager em;
+    EntityTransaction tx;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = JpaBenchmarkSupport.start();
+        emf = context.getBean(EntityManagerFactory.class);
+        context.getBean(MemberBulkLoader.class).load(Stream.empty(),
+            IntStream.range(0, MEMBERS).mapToObj(i -> new MemberRow("member" + i, "회원" + i, i % 100, null)),
+            Mode.STATELESS_SESSION);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        JpaBenchmarkSupport.deleteAll(emf);
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void open() {
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+        tx.rollback();
+        em.close();
+    }
+
+    @Benchmark
+    public List<Member> load() {
+        return em.createQuery("select m from Member m", Member.class).getResultList();
+    }
+
+    @Benchmark
+    public int loadModifyFlush() {
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+        for (int i = 0; i < members.size(); i += 100) {
+            Member member = members.get(i);
+            member.setAge(member.getAge() + 1);
+        }
+        em.flush();
+        return members.size();
+    }
+}
@@ -0,0 +1,82 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.ConcurrentPooledLoOptimizer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.PooledLoOptimizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 식별자 블록 할당만 측정 (시퀀스는 메모리) : 하이버네이트 pooled-lo(synchronized) vs ConcurrentPooledLoOptimizer
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdOptimizerBenchmark {
+
+    @Param({"pooled-lo", "concurrent"})
+    String optimizerType;
+
+    @Param({"50"})
+    int allocationSize;
+
+    Optimizer optimizer;
+    AccessCallback callback;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        optimizer = optimizerType.equals("concurrent")
+            ? new ConcurrentPooledLoOptimizer(Long.class, allocationSize)
+            : new PooledLoOptimizer(Long.class, allocationSize);
+        AtomicLong sequence = new AtomicLong(1);
+        callback = new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class)
+                    .initialize(sequence.getAndAdd(allocationSize));
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return null;
+            }
+        };
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object generate1() {
+        return optimizer.generate(callback);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object generate8() {
+        return optimizer.generate(callback);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Object generate64() {
+        return optimizer.generate(callback);
+    }
+}
@@ -0,0 +1,76 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import hello.jpabook.MemberBulkLoader.TeamRow;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * MemberBulkLoader 적재 속도 : 1회 적재 시간(s/op) 측정, rows/sec = (rows + 100) / score
+ * 모든 rows 에서 file H2 를 사용한다. (5M rows 는 in-memory H2 로는 -Xmx1g 에 들어가지 않고,
+ * 크기마다 저장소가 같아야 rows/sec 를 비교할 수 있다.)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class IngestBenchmark {
+
+    static final int TEAMS = 100;
+
+    @Param({"10000", "1000000", "5000000"})
+    int rows;
+
+    @Param({"ENTITY_MANAGER", "STATELESS_SESSION"})
+    Mode mode;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    MemberBulkLoader loader;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = JpaBenchmarkSupport.start(
+            "spring.datasource.url=jdbc:h2:file:./build/jmh-ingest;DB_CLOSE_ON_EXIT=FALSE",
+            "spring.jpa.hibernate.ddl-auto=create-drop");
+        emf = context.getBean(EntityManagerFactory.class);
+        loader = context.getBean(MemberBulkLoader.class);
+    }
+
+    @TearDown(Level.Invocation)
+    public void cleanUp() {
+        JpaBenchmarkSupport.deleteAll(emf);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public long ingest() {
+        return loader.load(
+            IntStream.range(0, TEAMS).mapToObj(i -> new TeamRow("team" + i, "팀" + i)),
+            IntStream.range(0, rows).mapToObj(
+                i -> new MemberRow("member" + i, "회원" + i, i % 100, "team" + (i % TEAMS))),
+            mode);
+    }
+}
@@ -0,0 +1,68 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.JpabookApplication;
+import hello.jpabook.Member;
+import hello.jpabook.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.function.Consumer;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 벤치마크 공통 : 스프링 컨텍스트(embedded H2)를 띄우고 EntityManagerFactory를 꺼내 쓴다.
+ * SQL/바인딩 로그(sqllog 프로필)는 측정을 왜곡하므로 켜지 않는다.
+ */
+public final class JpaBenchmarkSupport {
+
+    private JpaBenchmarkSupport() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(JpabookApplication.class)
+            .web(WebApplicationType.NONE)
+            .logStartupInfo(false)
+            .properties("logging.level.root=WARN")
+            .properties(properties)
+            .run();
+    }
+
+    public static void inTransaction(EntityManagerFactory emf, Consumer<EntityManager> work) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            work.accept(em);
+            tx.commit();
+        } catch (RuntimeException e) {
+            tx.rollback();
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    public static void deleteAll(EntityManagerFactory emf) {
+        inTransaction(emf, em -> {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+        });
+    }
+
+    public static Team team(String id, String name) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        return team;
+    }
+
+    public static Member member(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
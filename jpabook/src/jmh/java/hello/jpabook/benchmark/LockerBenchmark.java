@@ -0,0 +1,95 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.Locker;
+import hello.jpabook.LockerRepository;
+import hello.jpabook.Member;
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 사물함 10만 개 조회 : member 지연 로딩 프록시(lazy) vs fetch join(회원까지)
+ * <p>
+ * lazy 는 회원을 건드리지 않으므로 select 한 번 + 사물함만 영속성 컨텍스트에 올라간다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LockerBenchmark {
+
+    static final int LOCKERS = 100_000;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    LockerRepository lockerRepository;
+    TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = JpaBenchmarkSupport.start();
+        emf = context.getBean(EntityManagerFactory.class);
+        lockerRepository = context.getBean(LockerRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        context.getBean(MemberBulkLoader.class).load(
+            Stream.empty(),
+            IntStream.range(0, LOCKERS).mapToObj(i -> new MemberRow("member" + i, "회원" + i, i % 100, null)),
+            Mode.STATELESS_SESSION);
+        // 회원은 getReference 프록시로만 참조 (select 없음), 1000건마다 flush/clear
+        JpaBenchmarkSupport.inTransaction(emf, em -> {
+            for (int i = 0; i < LOCKERS; i++) {
+                Locker locker = new Locker();
+                locker.setMember(em.getReference(Member.class, "member" + i));
+                locker.setName("사물함" + i);
+                em.persist(locker);
+                if ((i + 1) % 1000 == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        JpaBenchmarkSupport.inTransaction(emf, em -> em.createQuery("delete from Locker l").executeUpdate());
+        JpaBenchmarkSupport.deleteAll(emf);
+        context.close();
+    }
+
+    @Benchmark
+    public int lazy() {
+        return transactionTemplate.execute(status -> {
+            List<Locker> lockers = lockerRepository.findAll();
+            return lockers.size();
+        });
+    }
+
+    @Benchmark
+    public int fetchJoin() {
+        return transactionTemplate.execute(status -> {
+            List<Locker> lockers = lockerRepository.findAllWithMember();
+            return lockers.size();
+        });
+    }
+}
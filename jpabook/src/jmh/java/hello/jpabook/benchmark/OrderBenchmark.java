@@ -0,0 +1,104 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.Member;
+import hello.jpabook.Order;
+import hello.jpabook.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 주문 insert 처리량 (orders/sec = ops/s x ordersPerTransaction), 쓰기 스레드 1, 8, 64
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBenchmark {
+
+    @Param({"1", "50"})
+    int ordersPerTransaction;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // 64 스레드가 커넥션을 기다리지 않도록
+        context = JpaBenchmarkSupport.start("spring.datasource.hikari.maximum-pool-size=64");
+        emf = context.getBean(EntityManagerFactory.class);
+        JpaBenchmarkSupport.inTransaction(emf, em -> {
+            em.persist(JpaBenchmarkSupport.member("member1", "회원1", 10));
+            Product product = new Product();
+            product.setId("productA");
+            product.setName("상품A");
+            em.persist(product);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        JpaBenchmarkSupport.inTransaction(emf, em -> {
+            em.createQuery("delete from Order o").executeUpdate();
+            em.createQuery("delete from Product p").executeUpdate();
+        });
+        JpaBenchmarkSupport.deleteAll(emf);
+        context.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void insert1() {
+        insertOrders();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void insert8() {
+        insertOrders();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void insert64() {
+        insertOrders();
+    }
+
+    private void insertOrders() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            Member member = em.getReference(Member.class, "member1");
+            Product product = em.getReference(Product.class, "productA");
+            for (int i = 0; i < ordersPerTransaction; i++) {
+                Order order = new Order();
+                order.setMember(member);
+                order.setProduct(product);
+                order.setOrderAmount(i);
+                em.persist(order);
+            }
+            tx.commit();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import hello.jpabook.MemberBulkLoader.TeamRow;
+import hello.jpabook.MemberQueryService;
+import hello.jpabook.MemberView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 회원 10만 명 목록 : 엔티티 조회(스냅샷 + 커밋 시 변경 감지) vs DTO 조회(readOnly 트랜잭션)
+ * 지연 시간(ms/op), 할당량(-prof gc : gc.alloc.rate.norm)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProjectionBenchmark {
+
+    static final int MEMBERS = 100_000;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    MemberQueryService memberQueryService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = JpaBenchmarkSupport.start();
+        emf = context.getBean(EntityManagerFactory.class);
+        memberQueryService = context.getBean(MemberQueryService.class);
+        context.getBean(MemberBulkLoader.class).load(
+            IntStream.range(0, 100).mapToObj(i -> new TeamRow("team" + i, "팀" + i)),
+            IntStream.range(0, MEMBERS).mapToObj(
+                i -> new MemberRow("member" + i, "회원" + i, i % 100, "team" + (i % 100))),
+            Mode.STATELESS_SESSION);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        JpaBenchmarkSupport.deleteAll(emf);
+        context.close();
+    }
+
+    @Benchmark
+    public int entities() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            List<Member> members = em.createQuery(
+                    "select m from Member m left join fetch m.team order by m.id", Member.class)
+                .getResultList();
+            tx.commit();
+            return members.size();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public int projection() {
+        List<MemberView> members = memberQueryService.findAll();
+        return members.size();
+    }
+}
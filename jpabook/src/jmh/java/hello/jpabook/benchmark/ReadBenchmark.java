@@ -0,0 +1,93 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.Member;
+import hello.jpabook.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 읽기 경로 : 1차 캐시 조회 vs 준영속 후 데이터베이스 조회(BasicTest.find(), find2()),
+ * JPQL join 조회(OneWayMappingTest.queryLogicJoin())
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBenchmark {
+
+    static final String JOIN_QUERY = "select m from Member m join m.team t where t.name = :teamName";
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    // 1차 캐시 조회용 : member1이 영속 상태로 남아 있다.
+    EntityManager cachedEm;
+    // 데이터베이스 조회용 : 매번 detach 한다.
+    EntityManager dbEm;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = JpaBenchmarkSupport.start();
+        emf = context.getBean(EntityManagerFactory.class);
+        JpaBenchmarkSupport.inTransaction(emf, em -> {
+            Team team1 = JpaBenchmarkSupport.team("team1", "팀1");
+            em.persist(team1);
+            for (int i = 1; i <= 10; i++) {
+                Member member = JpaBenchmarkSupport.member("member" + i, "회원" + i, i);
+                member.setTeam(team1);
+                em.persist(member);
+            }
+        });
+        cachedEm = emf.createEntityManager();
+        cachedEm.find(Member.class, "member1");
+        dbEm = emf.createEntityManager();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        cachedEm.close();
+        dbEm.close();
+        JpaBenchmarkSupport.deleteAll(emf);
+        context.close();
+    }
+
+    @Benchmark
+    public Member findFirstLevelCache() {
+        return cachedEm.find(Member.class, "member1");
+    }
+
+    @Benchmark
+    public Member findDatabase() {
+        Member member = dbEm.find(Member.class, "member1");
+        dbEm.detach(member);
+        return member;
+    }
+
+    @Benchmark
+    public List<Member> joinQueryByTeamName() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery(JOIN_QUERY, Member.class)
+                .setParameter("teamName", "팀1")
+                .getResultList();
+        } finally {
+            em.close();
+        }
+    }
+}
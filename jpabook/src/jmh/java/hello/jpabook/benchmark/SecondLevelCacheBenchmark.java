@@ -0,0 +1,68 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.Member;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 새 EntityManager 에서 em.find 지연 시간 : 2차 캐시 비움(cold) vs 2차 캐시 히트(warm)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecondLevelCacheBenchmark {
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = JpaBenchmarkSupport.start();
+        emf = context.getBean(EntityManagerFactory.class);
+        JpaBenchmarkSupport.inTransaction(emf,
+            em -> em.persist(JpaBenchmarkSupport.member("member1", "회원1", 10)));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        JpaBenchmarkSupport.deleteAll(emf);
+        context.close();
+    }
+
+    @Benchmark
+    public Member coldFind() {
+        emf.getCache().evict(Member.class, "member1");
+        return find();
+    }
+
+    @Benchmark
+    public Member warmFind() {
+        return find();
+    }
+
+    private Member find() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.find(Member.class, "member1");
+        } finally {
+            em.close();
+        }
+    }
+}
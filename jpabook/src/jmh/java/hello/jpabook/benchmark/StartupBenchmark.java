@@ -0,0 +1,112 @@
+package hello.jpabook.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기동 시간 : 기본 vs 빠른 기동 (Spring AOT + AppCDS + 백그라운드 JPA 부트스트랩)
+ * <p>
+ * JMH 는 한 JVM 안에서 재므로 JVM 기동(클래스 로딩, CDS)을 잴 수 없다. 모드마다 새 java 프로세스를 띄우고
+ * 컨텍스트 refresh 직후 종료(spring.context.exit=onRefresh)까지의 벽시계 시간을 잰다.
+ * 모드를 번갈아 실행해서 디스크 캐시, CPU 상태 차이가 한쪽에 몰리지 않게 한다.
+ * <p>
+ * ./gradlew startupBenchmark -PfastStartup  (인자 : 추출된 jar, CDS 아카이브, 반복 수)
+ */
+public final class StartupBenchmark {
+
+    enum Mode {
+        DEFAULT(false, false, false),
+        BACKGROUND_BOOTSTRAP(false, false, true),
+        AOT(true, false, false),
+        CDS(false, true, false),
+        FAST(true, true, true);
+
+        final boolean aot;
+        final boolean cds;
+        final boolean background;
+
+        Mode(boolean aot, boolean cds, boolean background) {
+            this.aot = aot;
+            this.cds = cds;
+            this.background = background;
+        }
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]);
+        Path archive = Path.of(args[1]);
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("CDS archive not found (./gradlew cdsArchive -PfastStartup): " + archive);
+        }
+
+        Map<Mode, List<Long>> millis = new EnumMap<>(Mode.class);
+        // 첫 실행은 버린다. (jar, 아카이브를 페이지 캐시에 올린다)
+        for (Mode mode : Mode.values()) {
+            start(mode, jar, archive);
+        }
+        for (int i = 0; i < runs; i++) {
+            for (Mode mode : Mode.values()) {
+                millis.computeIfAbsent(mode, m -> new ArrayList<>()).add(start(mode, jar, archive));
+            }
+        }
+
+        long baseline = median(millis.get(Mode.DEFAULT));
+        System.out.printf("%-22s %8s %8s %8s %8s%n", "mode", "min", "median", "max", "speedup");
+        for (Mode mode : Mode.values()) {
+            List<Long> values = millis.get(mode).stream().sorted().toList();
+            long median = median(values);
+            System.out.printf("%-22s %6dms %6dms %6dms %7.2fx%n", mode, values.get(0), median,
+                values.get(values.size() - 1), (double) baseline / median);
+        }
+    }
+
+    private static long start(Mode mode, Path jar, Path archive) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        if (mode.cds) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+            // 아카이브와 클래스패스가 맞지 않으면 조용히 CDS 없이 뜨는 대신 실패
+            command.add("-Xshare:on");
+        }
+        command.add("-Dspring.aot.enabled=" + mode.aot);
+        command.add("-Djpabook.startup.background-jpa-bootstrap=" + mode.background);
+        command.add("-Dspring.context.exit=onRefresh");
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=0");
+        command.add("--logging.level.root=WARN");
+
+        long begin = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .start();
+        // WARN 로그만 나오므로 출력은 작다.
+        String output = new String(process.getInputStream().readAllBytes());
+        if (!process.waitFor(2, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IllegalStateException(mode + " did not exit");
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        // onRefresh 종료는 exit code 가 0 이 아닐 수 있으므로 출력으로 실패를 가린다.
+        if (output.contains("APPLICATION FAILED TO START") || output.contains("Error occurred during initialization")
+            || output.contains("shared archive")) {
+            throw new IllegalStateException(mode + " failed: " + command + System.lineSeparator() + output);
+        }
+        return elapsed;
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+}
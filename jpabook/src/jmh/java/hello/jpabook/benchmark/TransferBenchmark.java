@@ -0,0 +1,123 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import hello.jpabook.MemberBulkLoader.TeamRow;
+import hello.jpabook.Team;
+import hello.jpabook.TeamService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 회원 10만 명인 두 팀 사이에서 1000명 이동 (매번 롤백)
+ * <p>
+ * rosters = LAZY : 팀 members 미초기화, INITIALIZED : 양쪽 팀 members 로딩 후 이동 (HashSet remove)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransferBenchmark {
+
+    static final int TEAM_SIZE = 100_000;
+    static final int MOVES = 1_000;
+
+    @Param({"LAZY", "INITIALIZED"})
+    String rosters;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    TeamService teamService;
+    TransactionTemplate transactionTemplate;
+    List<String> moveIds;
+
+    EntityManager em;
+    EntityTransaction tx;
+    Team toTeam;
+    List<Member> movers;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = JpaBenchmarkSupport.start();
+        emf = context.getBean(EntityManagerFactory.class);
+        teamService = context.getBean(TeamService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        context.getBean(MemberBulkLoader.class).load(
+            Stream.of(new TeamRow("team0", "팀0"), new TeamRow("team1", "팀1")),
+            IntStream.range(0, TEAM_SIZE * 2).mapToObj(
+                i -> new MemberRow("member" + i, "회원" + i, i % 100, "team" + (i % 2))),
+            Mode.STATELESS_SESSION);
+        // team0 소속 : 짝수
+        moveIds = IntStream.range(0, MOVES).mapToObj(i -> "member" + (i * 2)).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        JpaBenchmarkSupport.deleteAll(emf);
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void openUnitOfWork() {
+        em = emf.createEntityManager();
+        tx = em.getTransaction();
+        tx.begin();
+        Team fromTeam = em.find(Team.class, "team0");
+        toTeam = em.find(Team.class, "team1");
+        if (rosters.equals("INITIALIZED")) {
+            fromTeam.getMembers().size();
+            toTeam.getMembers().size();
+        }
+        movers = em.createQuery("select m from Member m where m.id in :ids", Member.class)
+            .setParameter("ids", moveIds)
+            .getResultList();
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeUnitOfWork() {
+        tx.rollback();
+        em.close();
+    }
+
+    @Benchmark
+    public int setTeam() {
+        for (Member member : movers) {
+            member.setTeam(toTeam);
+        }
+        em.flush();
+        return movers.size();
+    }
+
+    @Benchmark
+    public int transferMembers() {
+        return transactionTemplate.execute(status -> {
+            int moved = teamService.transferMembers("team0", "team1", moveIds);
+            status.flush();
+            status.setRollbackOnly();
+            return moved;
+        });
+    }
+}
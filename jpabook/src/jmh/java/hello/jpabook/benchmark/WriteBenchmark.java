@@ -0,0 +1,94 @@
+package hello.jpabook.benchmark;
+
+import hello.jpabook.Member;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 쓰기 경로 : persist -> commit(쓰기 지연 sql 저장소 flush), 변경 감지(dirty checking) update
+ * BasicTest.write(), BasicTest.update() 흐름을 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteBenchmark {
+
+    @Param({"1", "10", "100"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    EntityManagerFactory emf;
+    final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = JpaBenchmarkSupport.start();
+        emf = context.getBean(EntityManagerFactory.class);
+        JpaBenchmarkSupport.inTransaction(emf,
+            em -> em.persist(JpaBenchmarkSupport.member("member1", "회원1", 0)));
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        JpaBenchmarkSupport.inTransaction(emf,
+            em -> em.createQuery("delete from Member m where m.id <> 'member1'").executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        JpaBenchmarkSupport.deleteAll(emf);
+        context.close();
+    }
+
+    @Benchmark
+    public void persistAndCommit() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            for (int i = 0; i < rows; i++) {
+                long id = sequence.incrementAndGet();
+                em.persist(JpaBenchmarkSupport.member("bench" + id, "회원" + id, (int) (id % 100)));
+            }
+            tx.commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Benchmark
+    public Member dirtyCheckUpdate() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            Member member = em.find(Member.class, "member1");
+            // flush 시점에 스냅샷과 비교 -> update
+            member.setAge(member.getAge() + 1);
+            tx.commit();
+            return member;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package hello.jpabook;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.HibernateException;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AbstractOptimizer;
+import org.hibernate.id.enhanced.AccessCallback;
+
+/**
+ * pooled-lo : 시퀀스 값 v 하나로 [v, v + incrementSize) 블록을 메모리에서 나눠 준다.
+ * <p>
+ * 블록 안에서는 getAndIncrement 한 번 (락 없음). 블록이 다 떨어졌을 때만 한 스레드가 시퀀스를 조회해서 교체한다.
+ * 여러 JVM 이 같은 시퀀스를 써도 블록이 겹치지 않는다.
+ */
+public class ConcurrentPooledLoOptimizer extends AbstractOptimizer {
+
+    private record Block(AtomicLong next, long hi) {
+    }
+
+    private volatile Block block;
+    private volatile IntegralDataTypeHolder lastSourceValue;
+
+    public ConcurrentPooledLoOptimizer(Class<?> returnClass, int incrementSize) {
+        super(returnClass, incrementSize);
+        if (incrementSize < 1) {
+            throw new HibernateException("increment size cannot be less than 1");
+        }
+    }
+
+    @Override
+    public Serializable generate(AccessCallback callback) {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long id = current.next().getAndIncrement();
+                if (id < current.hi()) {
+                    return IdentifierGeneratorHelper.getIntegralDataTypeHolder(getReturnClass())
+                        .initialize(id)
+                        .makeValue();
+                }
+            }
+            refill(current, callback);
+        }
+    }
+
+    private synchronized void refill(Block exhausted, AccessCallback callback) {
+        if (block != exhausted) {
+            // 다른 스레드가 이미 교체했다.
+            return;
+        }
+        IntegralDataTypeHolder value = callback.getNextValue();
+        long lo = value.makeValue().longValue();
+        lastSourceValue = value;
+        block = new Block(new AtomicLong(lo), lo + getIncrementSize());
+    }
+
+    @Override
+    public IntegralDataTypeHolder getLastSourceValue() {
+        return lastSourceValue;
+    }
+
+    @Override
+    public boolean applyIncrementSizeToSourceValues() {
+        return true;
+    }
+}
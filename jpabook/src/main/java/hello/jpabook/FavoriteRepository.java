@@ -0,0 +1,105 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 관심 상품 연결 테이블(member_favorite) 대량 변경
+ * <p>
+ * Member.favorites 를 로딩하지 않고 sql 한 번(in 절 1000개 단위)으로 연결/해제한다.
+ * 영속성 컨텍스트를 거치지 않으므로 이미 로딩된 favorites 컬렉션에는 반영되지 않는다. (refresh 또는 새 EntityManager)
+ * query space 를 member_favorite 으로 지정 -> 2차 캐시/쿼리 캐시 전체가 아니라 이 테이블만 무효화된다.
+ */
+@Repository
+public class FavoriteRepository {
+
+    static final int IN_LIMIT = 1000;
+    private static final String TABLE = "member_favorite";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * 회원에게 상품들을 연결한다. 이미 연결된 상품, 없는 상품은 건너뛴다.
+     *
+     * @return insert 된 행 수
+     */
+    public int link(String memberId, Collection<String> productIds) {
+        int linked = 0;
+        for (List<String> chunk : chunks(productIds)) {
+            linked += em.createNativeQuery("""
+                    insert into member_favorite (member_id, product_id)
+                    select :memberId, p.product_id from product p
+                    where p.product_id in (:productIds)
+                      and not exists (select 1 from member_favorite f
+                                      where f.member_id = :memberId and f.product_id = p.product_id)
+                    """)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(TABLE)
+                .setParameter("memberId", memberId)
+                .setParameterList("productIds", chunk)
+                .executeUpdate();
+        }
+        return linked;
+    }
+
+    /**
+     * @return delete 된 행 수
+     */
+    public int unlink(String memberId, Collection<String> productIds) {
+        int unlinked = 0;
+        for (List<String> chunk : chunks(productIds)) {
+            unlinked += em.createNativeQuery(
+                    "delete from member_favorite where member_id = :memberId and product_id in (:productIds)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(TABLE)
+                .setParameter("memberId", memberId)
+                .setParameterList("productIds", chunk)
+                .executeUpdate();
+        }
+        return unlinked;
+    }
+
+    public int unlinkAll(String memberId) {
+        return em.createNativeQuery("delete from member_favorite where member_id = :memberId")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace(TABLE)
+            .setParameter("memberId", memberId)
+            .executeUpdate();
+    }
+
+    /**
+     * 팀 회원들의 연결 행을 모두 지운다. (회원 벌크 delete 전 - 벌크 jpql 은 연결 테이블을 지우지 않는다)
+     *
+     * @return delete 된 행 수
+     */
+    public int unlinkAllOfTeam(String teamId) {
+        return em.createNativeQuery(
+                "delete from member_favorite where member_id in (select m.id from member m where m.team_id = :teamId)")
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace(TABLE)
+            .setParameter("teamId", teamId)
+            .executeUpdate();
+    }
+
+    public List<String> findProductIds(String memberId) {
+        return em.createQuery(
+                "select p.id from Member m join m.favorites p where m.id = :memberId order by p.id", String.class)
+            .setParameter("memberId", memberId)
+            .getResultList();
+    }
+
+    private static List<List<String>> chunks(Collection<String> ids) {
+        List<String> list = new ArrayList<>(ids);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += IN_LIMIT) {
+            chunks.add(list.subList(from, Math.min(from + IN_LIMIT, list.size())));
+        }
+        return chunks;
+    }
+}
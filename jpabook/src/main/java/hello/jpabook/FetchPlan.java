@@ -0,0 +1,13 @@
+package hello.jpabook;
+
+/**
+ * 연관관계 조회 전략
+ * <p>
+ * LAZY : 연관관계는 프록시/미초기화 컬렉션 그대로 (접근 시 batch fetch size 만큼 묶어서 select)
+ * BATCH : 조회 직후 batch fetch size 로 연관관계를 초기화 (in 절로 묶어서 1 + N/size)
+ * FETCH_JOIN : JPQL join fetch (1번)
+ * ENTITY_GRAPH : @NamedEntityGraph (1번)
+ */
+public enum FetchPlan {
+    LAZY, BATCH, FETCH_JOIN, ENTITY_GRAPH
+}
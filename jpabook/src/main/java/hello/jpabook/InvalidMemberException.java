@@ -0,0 +1,11 @@
+package hello.jpabook;
+
+/**
+ * 잘못된 회원 가입/이동 요청 (id 없음, 없는 팀) - 웹에서는 400
+ */
+public class InvalidMemberException extends RuntimeException {
+
+    public InvalidMemberException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package hello.jpabook;
+
+/**
+ * 잘못된 키셋 페이지 요청 (해석할 수 없는 토큰, 다른 정렬/팀의 토큰, 범위 밖의 크기) - 웹에서는 400
+ * <p>
+ * 다른 IllegalArgumentException(JPA 사용 오류, 프로그래밍 오류)과 구분하려고 따로 둔다.
+ */
+public class InvalidPageTokenException extends IllegalArgumentException {
+
+    public InvalidPageTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidPageTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,31 @@
+package hello.jpabook;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * jpabook.startup.background-jpa-bootstrap=true : EntityManagerFactory 를 백그라운드 스레드에서 만든다. (bootstrap-executor)
+ * <p>
+ * 메타모델 구성(엔티티 매핑, 바이트코드 향상 확인, 2차 캐시 region)과 나머지 빈 생성(웹 서버, 컨트롤러 ...)이 겹친다.
+ * EntityManagerFactory 빈은 프록시이고, 처음 쓰는 곳(unwrap, createEntityManager)에서 부트스트랩이 끝날 때까지 기다린다.
+ * 그래서 생성자에서 EntityManagerFactory 를 쓰지 않는다. (QueryCacheMetrics 참고)
+ * <p>
+ * @ConditionalOnProperty 대신 실행 시점에 읽는다 - Spring AOT 는 조건을 빌드 때 고정하기 때문 (build.gradle fastStartup)
+ */
+@Configuration
+public class JpaBootstrapConfig {
+
+    @Bean
+    public EntityManagerFactoryBuilderCustomizer jpaBootstrapExecutorCustomizer(
+        @Value("${jpabook.startup.background-jpa-bootstrap:false}") boolean background) {
+        return builder -> {
+            if (background) {
+                // Executor 빈으로 등록하면 스프링 부트의 applicationTaskExecutor 가 빠지므로 여기서만 쓴다.
+                builder.setBootstrapExecutor(new SimpleAsyncTaskExecutor("jpa-bootstrap-"));
+            }
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package hello.jpabook;
+
+import java.util.List;
+
+/**
+ * 키셋 페이징 결과
+ *
+ * @param next 다음 페이지 토큰, 마지막 페이지면 null
+ */
+public record KeysetPage<T>(List<T> content, String next) {
+}
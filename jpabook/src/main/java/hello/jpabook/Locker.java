@@ -0,0 +1,40 @@
+package hello.jpabook;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 사물함 - 회원과 1:1, 회원의 기본 키를 그대로 기본 키로 쓴다. (@MapsId, 식별 관계)
+ * <p>
+ * OneToOneTest 는 반대로 주 테이블(member)에 외래 키(locker_id)를 두고 Locker.member 가 mappedBy 쪽이다.
+ * mappedBy 쪽은 외래 키가 없어서 프록시를 만들 수 없다 -> 조회할 때마다 select.
+ * 여기서는 Locker.member 가 연관관계의 주인(member_locker.member_id = member.id)이므로 LAZY 프록시가 된다.
+ * 테이블 이름 : OneToOneTest.Locker 의 locker 테이블과 합쳐지지 않게 member_locker
+ * Member 쪽에는 필드를 두지 않는다. 회원의 사물함은 같은 id 로 em.find(Locker.class, memberId) (기본 키 조회)
+ */
+@Entity
+@Table(name = "member_locker")
+@Getter
+@Setter
+public class Locker {
+
+    @Id
+    private String id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "member_id")
+    private Member member;
+
+    private String name;
+
+    public Locker() {
+    }
+}
@@ -0,0 +1,47 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class LockerRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * 회원에게 사물함 배정 - 회원은 프록시로만 참조한다. (select 없음)
+     */
+    public Locker assign(String memberId, String name) {
+        Locker locker = new Locker();
+        locker.setMember(em.getReference(Member.class, memberId));
+        locker.setName(name);
+        em.persist(locker);
+        return locker;
+    }
+
+    /**
+     * 회원의 사물함 (공유 기본 키)
+     */
+    public Locker findByMemberId(String memberId) {
+        return em.find(Locker.class, memberId);
+    }
+
+    /**
+     * 사물함 목록 - member 는 초기화되지 않은 프록시 (select 한 번)
+     */
+    public List<Locker> findAll() {
+        return em.createQuery("select l from Locker l order by l.id", Locker.class)
+            .getResultList();
+    }
+
+    /**
+     * 사물함 + 회원 (fetch join, select 한 번)
+     */
+    public List<Locker> findAllWithMember() {
+        return em.createQuery("select l from Locker l join fetch l.member order by l.id", Locker.class)
+            .getResultList();
+    }
+}
@@ -1,33 +1,112 @@
 package hello.jpabook;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
+import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.QueryHint;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.jpa.HibernateHints;
 
 @Entity
 @Getter
 @Setter
-@Table
+// team_id : 팀 조인/팀별 조회, username : 이름으로 조회 (NamedQueryPlanTest 에서 EXPLAIN 으로 확인)
+// (team_id, id), (age, id) : 키셋 페이징 (MemberKeyset)
+@Table(indexes = {
+    @Index(name = "idx_member_team_id", columnList = "team_id, id"),
+    @Index(name = "idx_member_age_id", columnList = "age, id"),
+    @Index(name = "idx_member_username", columnList = "username")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = Member.WITH_TEAM, attributeNodes = @NamedAttributeNode("team"))
+// 쿼리 캐시 : Member, Team 테이블에 쓰기가 있으면 무효화된다. (update timestamps)
+@NamedQuery(name = Member.FIND_BY_TEAM_NAME,
+    query = "select m from Member m join m.team t where t.name = :teamName",
+    hints = {
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Member.FIND_BY_TEAM_NAME)
+    })
+@NamedQuery(name = Member.FIND_BY_USERNAME, query = "select m from Member m where m.username = :username")
 public class Member {
 
+    public static final String WITH_TEAM = "Member.withTeam";
+    public static final String FIND_BY_TEAM_NAME = "Member.findByTeamName";
+    public static final String FIND_BY_USERNAME = "Member.findByUsername";
+
     @Id
     private String id;
     private String username;
     private Integer age;
-    @ManyToOne
+    // 기본 EAGER -> LAZY : 필요한 곳에서 fetch plan(fetch join, entity graph)으로 함께 조회한다.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     private Team team;
+    /*
+    관심 상품 (단방향 다대다, member_favorite 연결 테이블)
+    List(bag) 는 중복을 허용하고 행을 식별할 수 없어서 하나만 바뀌어도 회원의 연결 행을 전부 delete 후 다시 insert 한다.
+    Set 은 (member_id, product_id) 가 기본 키 -> 추가/삭제한 행만 insert/delete
+    많이 연결할 때는 컬렉션을 로딩하지 않는 FavoriteRepository.link/unlink
+     */
+    @ManyToMany
+    @JoinTable(name = "member_favorite",
+        joinColumns = @JoinColumn(name = "member_id"),
+        inverseJoinColumns = @JoinColumn(name = "product_id"))
+    private Set<Product> favorites = new HashSet<>();
+    /*
+    낙관적 락 : 같은 회원을 두 트랜잭션이 동시에 바꾸면 늦게 flush 하는 쪽이 실패한다. (update ... where version = ?)
+    없으면 두 update 가 모두 성공해서 TeamAggregates 가 팀 이동/나이 변경 증감을 두 번 반영한다.
+    벌크 jpql 은 update versioned 로 올린다.
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    private Long version;
 
+    /**
+     * 연관관계 편의 메서드
+     * 팀 이동 시 team.members 를 초기화하거나 순회하지 않는다. (Team.addMember/removeMember 참고)
+     */
     public void setTeam(Team team) {
-        if (this.team != null) {
-            this.team.getMembers().remove(this);
+        // 초기화되지 않은 프록시는 메서드 호출만으로 select 가 나가므로 건너뛴다.
+        if (this.team != null && Hibernate.isInitialized(this.team)) {
+            this.team.removeMember(this);
+        }
+        this.team = team;
+        if (team != null && Hibernate.isInitialized(team)) {
+            team.addMember(this);
         }
+    }
+
+    // 외래 키만 설정한다. 연관관계 편의 메서드를 거치지 않으므로 team.members 를 건드리지 않는다. (대량 적재용)
+    void assignTeam(Team team) {
         this.team = team;
-        team.getMembers().add(this);
     }
+
+    public void addFavorite(Product product) {
+        favorites.add(product);
+    }
+
+    public void removeFavorite(Product product) {
+        favorites.remove(product);
+    }
+
     public Member() {}
 }
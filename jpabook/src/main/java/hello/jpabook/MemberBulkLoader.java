@@ -0,0 +1,187 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Team, Member 대량 적재
+ * <p>
+ * 1. 엔티티 순서대로 insert : Team 전부 -> Member 전부 (같은 insert 문이 연속되어야 batch 로 묶인다.)
+ * 2. batchSize 마다 flush() & clear() : 쓰기 지연 sql 저장소를 비우고 1차 캐시가 커지지 않게 한다.
+ * 3. id 를 직접 할당(String)하므로 persist 시점에 insert 가 나가지 않는다 -> JDBC batch 가능
+ * <p>
+ * STATELESS_SESSION : 영속성 컨텍스트(1차 캐시, 스냅샷)가 없다.
+ * 이벤트도 없으므로 Team 집계는 커밋 후 적재한 회원의 팀만 다시 구한다. (TeamAggregates.recompute)
+ */
+@Service
+public class MemberBulkLoader {
+
+    public enum Mode {
+        ENTITY_MANAGER, STATELESS_SESSION
+    }
+
+    public record TeamRow(String id, String name) {
+    }
+
+    public record MemberRow(String id, String username, Integer age, String teamId) {
+    }
+
+    private final EntityManagerFactory emf;
+    private final TeamAggregates teamAggregates;
+    private final int batchSize;
+
+    public MemberBulkLoader(EntityManagerFactory emf, TeamAggregates teamAggregates,
+        @Value("${jpabook.bulk.batch-size:1000}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.emf = emf;
+        this.teamAggregates = teamAggregates;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return 적재한 row 수 (team + member)
+     */
+    public long load(Stream<TeamRow> teams, Stream<MemberRow> members, Mode mode) {
+        return switch (mode) {
+            case ENTITY_MANAGER -> loadWithEntityManager(teams, members);
+            case STATELESS_SESSION -> loadWithStatelessSession(teams, members);
+        };
+    }
+
+    private long loadWithEntityManager(Stream<TeamRow> teams, Stream<MemberRow> members) {
+        EntityManager em = emf.createEntityManager();
+        em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            long count = 0;
+            Iterator<TeamRow> teamRows = teams.iterator();
+            while (teamRows.hasNext()) {
+                em.persist(toTeam(teamRows.next()));
+                if (++count % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+
+            Iterator<MemberRow> memberRows = members.iterator();
+            while (memberRows.hasNext()) {
+                MemberRow row = memberRows.next();
+                Member member = toMember(row);
+                // 프록시 : select 없이 외래 키만 사용
+                if (row.teamId() != null) {
+                    member.assignTeam(em.getReference(Team.class, row.teamId()));
+                }
+                em.persist(member);
+                if (++count % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+            tx.commit();
+            return count;
+        } catch (RuntimeException e) {
+            tx.rollback();
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private long loadWithStatelessSession(Stream<TeamRow> teams, Stream<MemberRow> members) {
+        Set<String> teamIds = new HashSet<>();
+        long count = insertWithStatelessSession(teams, members, teamIds);
+        recomputeTeams(teamIds);
+        return count;
+    }
+
+    private long insertWithStatelessSession(Stream<TeamRow> teams, Stream<MemberRow> members, Set<String> teamIds) {
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            Transaction tx = session.beginTransaction();
+            try {
+                long count = 0;
+                Iterator<TeamRow> teamRows = teams.iterator();
+                while (teamRows.hasNext()) {
+                    session.insert(toTeam(teamRows.next()));
+                    count++;
+                }
+                Iterator<MemberRow> memberRows = members.iterator();
+                while (memberRows.hasNext()) {
+                    MemberRow row = memberRows.next();
+                    Member member = toMember(row);
+                    // 식별자만 가진 Team : 외래 키 값으로만 쓰인다.
+                    if (row.teamId() != null) {
+                        Team team = new Team();
+                        team.setId(row.teamId());
+                        member.assignTeam(team);
+                        teamIds.add(row.teamId());
+                    }
+                    session.insert(member);
+                    count++;
+                }
+                tx.commit();
+                return count;
+            } catch (RuntimeException e) {
+                tx.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private void recomputeTeams(Set<String> teamIds) {
+        if (teamIds.isEmpty()) {
+            return;
+        }
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            List<String> ids = new ArrayList<>(teamIds);
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                teamAggregates.recompute(em, ids.subList(from, Math.min(from + batchSize, ids.size())));
+            }
+            tx.commit();
+        } catch (RuntimeException e) {
+            tx.rollback();
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    private Team toTeam(TeamRow row) {
+        Team team = new Team();
+        team.setId(row.id());
+        team.setName(row.name());
+        return team;
+    }
+
+    private Member toMember(MemberRow row) {
+        Member member = new Member();
+        member.setId(row.id());
+        member.setUsername(row.username());
+        member.setAge(row.age());
+        return member;
+    }
+}
@@ -0,0 +1,78 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Member 전체 내보내기 - 메모리 사용량이 테이블 크기와 무관하다.
+ * <p>
+ * 1. getResultList() 대신 getResultStream() (ScrollableResults) + fetch size : 한 번에 fetchSize 만큼만 가져온다.
+ * 2. 읽기 전용 : 스냅샷을 만들지 않는다.
+ * 3. chunkSize 마다 clear() : 1차 캐시에 쌓이지 않게 한다. (sink 는 받은 Member 를 붙잡고 있으면 안 된다.)
+ * 4. CacheMode.IGNORE : 2차 캐시를 내보내기 데이터로 채우지 않는다.
+ */
+@Service
+public class MemberExporter {
+
+    private final EntityManagerFactory emf;
+    private final int fetchSize;
+    private final int chunkSize;
+
+    public MemberExporter(EntityManagerFactory emf,
+        @Value("${jpabook.export.fetch-size:1000}") int fetchSize,
+        @Value("${jpabook.export.chunk-size:1000}") int chunkSize) {
+        this.emf = emf;
+        this.fetchSize = fetchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return 내보낸 회원 수
+     */
+    public long exportMembers(Consumer<Member> sink) {
+        return export("select m from Member m", sink);
+    }
+
+    /**
+     * member.getTeam() 이 초기화된 상태로 넘어온다. (팀 없는 회원은 제외)
+     */
+    public long exportMembersWithTeam(Consumer<Member> sink) {
+        return export("select m from Member m join fetch m.team", sink);
+    }
+
+    private long export(String jpql, Consumer<Member> sink) {
+        EntityManager em = emf.createEntityManager();
+        em.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try (Stream<Member> stream = em.createQuery(jpql, Member.class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream()) {
+            long count = 0;
+            Iterator<Member> members = stream.iterator();
+            while (members.hasNext()) {
+                sink.accept(members.next());
+                if (++count % chunkSize == 0) {
+                    em.clear();
+                }
+            }
+            tx.commit();
+            return count;
+        } catch (RuntimeException e) {
+            tx.rollback();
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+}
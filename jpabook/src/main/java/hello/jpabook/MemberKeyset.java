@@ -0,0 +1,146 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Member 키셋(seek) 페이징 공통 - MemberRepository(엔티티), MemberQueryService(MemberView)
+ * <p>
+ * offset 대신 "마지막으로 본 (정렬 키, id) 다음부터" 조회한다. 인덱스 (team_id, id), (age, id) 를 타므로
+ * 몇 번째 페이지든 비용이 같다.
+ * 토큰은 (정렬 기준, 정렬 키, id) 를 Base64 로 감싼 것 - 클라이언트는 해석하지 않는다. (서명은 없다.)
+ */
+final class MemberKeyset {
+
+    static final int MAX_SIZE = 1000;
+
+    record Key(MemberSort sort, String value, String id) {
+    }
+
+    private MemberKeyset() {
+    }
+
+    /**
+     * @param selection select 할 대상 (m : Member, joins 의 별칭)
+     * @param teamId    null 이 아니면 그 팀 회원만 (TEAM 정렬 = 팀 안에서 id 순)
+     * @param token     이전 페이지의 next, 첫 페이지면 null
+     * @throws InvalidPageTokenException 잘못된 size, 토큰
+     */
+    static <T> KeysetPage<T> find(EntityManager em, String selection, String joins, Class<T> type,
+        MemberSort sort, String teamId, String token, int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new InvalidPageTokenException("page size must be between 1 and " + MAX_SIZE + ": " + size);
+        }
+        if (teamId != null && sort != MemberSort.TEAM) {
+            throw new IllegalArgumentException("team roster is ordered by " + MemberSort.TEAM);
+        }
+        Key after = decode(token, sort);
+        if (after != null && teamId != null && !after.value().equals(teamId)) {
+            throw new InvalidPageTokenException("page token is for team " + after.value() + ", not " + teamId);
+        }
+        // 정렬 키는 엔티티/DTO 에서 꺼내지 않고 함께 select 한다. (team 프록시 초기화 방지)
+        String jpql = "select " + selection + ", m.team.id, m.age, m.id from Member m " + joins
+            + where(sort, teamId, after) + orderBy(sort, teamId);
+        TypedQuery<Object[]> query = em.createQuery(jpql, Object[].class);
+        if (teamId != null) {
+            query.setParameter("teamId", teamId);
+        }
+        if (after != null) {
+            if (teamId == null) {
+                query.setParameter("key", sort == MemberSort.AGE ? Integer.valueOf(after.value()) : after.value());
+            }
+            query.setParameter("id", after.id());
+        }
+        // 한 건 더 읽어서 다음 페이지가 있는지 본다.
+        List<Object[]> rows = query.setMaxResults(size + 1).getResultList();
+        return page(rows, size, row -> keyOf(sort, row), row -> type.cast(row[0]));
+    }
+
+    private static String where(MemberSort sort, String teamId, Key after) {
+        if (teamId != null) {
+            return "where m.team.id = :teamId" + (after == null ? "" : " and m.id > :id");
+        }
+        String where = switch (sort) {
+            case TEAM -> "where m.team.id is not null";
+            case AGE -> "where m.age is not null";
+        };
+        if (after == null) {
+            return where;
+        }
+        // (key, id) > (:key, :id) - 앞 조건(key >= :key)으로 인덱스 범위 검색
+        return where + switch (sort) {
+            case TEAM -> " and m.team.id >= :key and (m.team.id > :key or m.id > :id)";
+            case AGE -> " and m.age >= :key and (m.age > :key or m.id > :id)";
+        };
+    }
+
+    private static String orderBy(MemberSort sort, String teamId) {
+        if (teamId != null) {
+            return " order by m.id";
+        }
+        return switch (sort) {
+            case TEAM -> " order by m.team.id, m.id";
+            case AGE -> " order by m.age, m.id";
+        };
+    }
+
+    private static Key keyOf(MemberSort sort, Object[] row) {
+        String value = switch (sort) {
+            case TEAM -> (String) row[1];
+            case AGE -> String.valueOf(row[2]);
+        };
+        return new Key(sort, value, (String) row[3]);
+    }
+
+    private static <R, T> KeysetPage<T> page(List<R> rows, int size, Function<R, Key> keyOf, Function<R, T> mapper) {
+        boolean hasNext = rows.size() > size;
+        List<R> content = hasNext ? rows.subList(0, size) : rows;
+        String next = hasNext ? encode(keyOf.apply(content.get(size - 1))) : null;
+        return new KeysetPage<>(content.stream().map(mapper).toList(), next);
+    }
+
+    private static String encode(Key key) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(key.sort().name());
+            out.writeUTF(key.value());
+            out.writeUTF(key.id());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * @return token 이 null 이면 null (첫 페이지)
+     * @throws InvalidPageTokenException 잘못된 토큰, 다른 정렬 기준의 토큰
+     */
+    static Key decode(String token, MemberSort sort) {
+        if (token == null) {
+            return null;
+        }
+        Key key;
+        try (DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            key = new Key(MemberSort.valueOf(in.readUTF()), in.readUTF(), in.readUTF());
+            if (key.sort() == MemberSort.AGE) {
+                Integer.parseInt(key.value());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Base64, enum 이름, 숫자 형식 오류 포함
+            throw new InvalidPageTokenException("invalid page token: " + token, e);
+        }
+        if (key.sort() != sort) {
+            throw new InvalidPageTokenException("page token is for sort " + key.sort() + ", not " + sort);
+        }
+        return key;
+    }
+}
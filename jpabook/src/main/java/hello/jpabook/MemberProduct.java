@@ -0,0 +1,40 @@
+package hello.jpabook;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 회원-상품 연결 엔티티 (ManyToManyTest2 의 식별 관계)
+ * 외래 키(member_id, product_id)를 기본 키로 사용 -> @EmbeddedId + @MapsId
+ */
+@Entity
+@Table(name = "member_products")
+@Getter
+@Setter
+public class MemberProduct {
+
+    @EmbeddedId
+    private MemberProductId id = new MemberProductId();
+
+    @MapsId("memberId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id")
+    private Member member;
+
+    @MapsId("productId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    private int orderAmount;
+
+    public MemberProduct() {
+    }
+}
@@ -0,0 +1,32 @@
+package hello.jpabook;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.io.Serializable;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * MemberProduct 복합 키 (@EmbeddedId)
+ * Serializable, equals & hashCode, 기본 생성자 필수
+ */
+@Embeddable
+@EqualsAndHashCode
+@Getter
+@Setter
+public class MemberProductId implements Serializable {
+
+    @Column(name = "member_id")
+    private String memberId;
+    @Column(name = "product_id")
+    private String productId;
+
+    public MemberProductId() {
+    }
+
+    public MemberProductId(String memberId, String productId) {
+        this.memberId = memberId;
+        this.productId = productId;
+    }
+}
@@ -0,0 +1,49 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class MemberProductRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final int batchSize;
+
+    public MemberProductRepository(@Value("${jpabook.member-product.multi-load-batch-size:100}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 여러 (회원, 상품) 을 한 번에 조회
+     * 영속성 컨텍스트(1차 캐시)에 있는 것은 그대로 쓰고, 나머지는 batchSize 개씩
+     * where (member_id, product_id) in ((?, ?), ...) 로 조회한다.
+     *
+     * @return 요청 순서대로, 없는 키는 빠진다.
+     */
+    public Map<MemberProductId, MemberProduct> findAll(Collection<MemberProductId> ids) {
+        List<MemberProductId> idList = new ArrayList<>(ids);
+        List<MemberProduct> loaded = em.unwrap(Session.class)
+            .byMultipleIds(MemberProduct.class)
+            .enableSessionCheck(true)
+            .withBatchSize(batchSize)
+            .multiLoad(idList);
+        Map<MemberProductId, MemberProduct> result = new LinkedHashMap<>();
+        for (int i = 0; i < idList.size(); i++) {
+            MemberProduct memberProduct = loaded.get(i);
+            if (memberProduct != null) {
+                result.put(idList.get(i), memberProduct);
+            }
+        }
+        return result;
+    }
+}
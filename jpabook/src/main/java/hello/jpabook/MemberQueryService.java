@@ -0,0 +1,74 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 조회 전용 - 엔티티 대신 DTO(MemberView) 로 바로 조회한다. (new 명령어)
+ * <p>
+ * 엔티티가 아니므로 1차 캐시, 스냅샷, 변경 감지가 없다.
+ * readOnly 트랜잭션 : 하이버네이트 flush mode MANUAL (커밋 시 flush 안 함)
+ */
+@Service
+@Transactional(readOnly = true)
+public class MemberQueryService {
+
+    static final String VIEW = "new hello.jpabook.MemberView(m.id, m.username, m.age, t.name)";
+    static final String SELECT_VIEW = "select " + VIEW + " from Member m left join m.team t ";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public List<MemberView> findAll() {
+        return em.createQuery(SELECT_VIEW + "order by m.id", MemberView.class)
+            .getResultList();
+    }
+
+    public MemberView findById(String id) {
+        List<MemberView> result = em.createQuery(SELECT_VIEW + "where m.id = :id", MemberView.class)
+            .setParameter("id", id)
+            .getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * 팀 통계 - members 로딩, Member 집계 없이 team 한 row (TeamAggregates 가 유지)
+     */
+    public TeamStats findTeamStats(String teamId) {
+        List<TeamStats> result = em.createQuery("select new hello.jpabook.TeamStats(t.id, t.name, t.memberCount,"
+                + " t.ageCount, t.ageSum, t.minAge, t.maxAge) from Team t where t.id = :teamId", TeamStats.class)
+            .setParameter("teamId", teamId)
+            .getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    public List<MemberView> findByTeamId(String teamId) {
+        return em.createQuery(SELECT_VIEW + "where t.id = :teamId order by m.id", MemberView.class)
+            .setParameter("teamId", teamId)
+            .getResultList();
+    }
+
+    /**
+     * 키셋 페이징 - token 은 이전 페이지의 next (첫 페이지는 null)
+     */
+    public KeysetPage<MemberView> findPage(MemberSort sort, String token, int size) {
+        return MemberKeyset.find(em, VIEW, "left join m.team t ", MemberView.class, sort, null, token, size);
+    }
+
+    /**
+     * 팀 명단 키셋 페이징 (id 순)
+     */
+    public KeysetPage<MemberView> findTeamPage(String teamId, String token, int size) {
+        return MemberKeyset.find(em, VIEW, "left join m.team t ", MemberView.class, MemberSort.TEAM, teamId, token,
+            size);
+    }
+
+    public List<MemberView> findByTeamName(String teamName) {
+        return em.createQuery(SELECT_VIEW + "where t.name = :teamName order by m.id", MemberView.class)
+            .setParameter("teamName", teamName)
+            .getResultList();
+    }
+}
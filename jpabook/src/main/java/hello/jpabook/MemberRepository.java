@@ -0,0 +1,76 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Member 조회 - Member.team(LAZY) 을 어떻게 가져올지 FetchPlan 으로 정한다.
+ */
+@Repository
+public class MemberRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public List<Member> findByTeamName(String teamName, FetchPlan plan) {
+        return initialize(query("where t.name = :teamName", plan)
+            .setParameter("teamName", teamName)
+            .getResultList(), plan);
+    }
+
+    /**
+     * 쿼리 캐시 사용 (Member.FIND_BY_TEAM_NAME)
+     * 트랜잭션 밖에서 호출하면 캐시 히트 시 커넥션도 얻지 않는다.
+     */
+    public List<Member> findByTeamNameCached(String teamName) {
+        return em.createNamedQuery(Member.FIND_BY_TEAM_NAME, Member.class)
+            .setParameter("teamName", teamName)
+            .getResultList();
+    }
+
+    public List<Member> findByUsername(String username) {
+        return em.createNamedQuery(Member.FIND_BY_USERNAME, Member.class)
+            .setParameter("username", username)
+            .getResultList();
+    }
+
+    public List<Member> findByTeamIds(List<String> teamIds, FetchPlan plan) {
+        return initialize(query("where t.id in :teamIds", plan)
+            .setParameter("teamIds", teamIds)
+            .getResultList(), plan);
+    }
+
+    /**
+     * 키셋 페이징 - token 은 이전 페이지의 next (첫 페이지는 null)
+     */
+    public KeysetPage<Member> findPage(MemberSort sort, String token, int size) {
+        return MemberKeyset.find(em, "m", "", Member.class, sort, null, token, size);
+    }
+
+    /**
+     * 팀 명단 키셋 페이징 (id 순)
+     */
+    public KeysetPage<Member> findTeamPage(String teamId, String token, int size) {
+        return MemberKeyset.find(em, "m", "", Member.class, MemberSort.TEAM, teamId, token, size);
+    }
+
+    private List<Member> initialize(List<Member> members, FetchPlan plan) {
+        if (plan == FetchPlan.BATCH) {
+            members.forEach(member -> Hibernate.initialize(member.getTeam()));
+        }
+        return members;
+    }
+
+    private TypedQuery<Member> query(String where, FetchPlan plan) {
+        return switch (plan) {
+            case LAZY, BATCH -> em.createQuery("select m from Member m join m.team t " + where, Member.class);
+            case FETCH_JOIN -> em.createQuery("select m from Member m join fetch m.team t " + where, Member.class);
+            case ENTITY_GRAPH -> em.createQuery("select m from Member m join m.team t " + where, Member.class)
+                .setHint(TeamRepository.FETCH_GRAPH, em.getEntityGraph(Member.WITH_TEAM));
+        };
+    }
+}
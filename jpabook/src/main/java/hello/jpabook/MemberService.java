@@ -0,0 +1,114 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class MemberService {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TeamAggregates teamAggregates;
+    private final LockerRepository lockerRepository;
+
+    public MemberService(TeamAggregates teamAggregates, LockerRepository lockerRepository) {
+        this.teamAggregates = teamAggregates;
+        this.lockerRepository = lockerRepository;
+    }
+
+    /**
+     * 회원 가입 - teamId 가 없으면 팀 없이
+     * 이미 있는 id 는 커밋 때 기본 키 위반 (DataIntegrityViolationException)
+     *
+     * @throws InvalidMemberException id 가 없거나 없는 팀
+     */
+    public Member join(String id, String username, Integer age, String teamId) {
+        if (id == null || id.isBlank()) {
+            throw new InvalidMemberException("member id is required");
+        }
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        if (teamId != null) {
+            // 프록시 대신 조회 (대개 2차 캐시) : 없는 팀을 커밋 때 외래 키 위반이 아니라 여기서 알린다.
+            Team team = em.find(Team.class, teamId);
+            if (team == null) {
+                throw new InvalidMemberException("unknown team: " + teamId);
+            }
+            member.setTeam(team);
+        }
+        em.persist(member);
+        return member;
+    }
+
+    /**
+     * 변경 감지로 수정 (null 인 값은 그대로)
+     *
+     * @return 없는 회원이면 false
+     */
+    public boolean update(String id, String username, Integer age) {
+        Member member = em.find(Member.class, id);
+        if (member == null) {
+            return false;
+        }
+        if (username != null) {
+            member.setUsername(username);
+        }
+        if (age != null) {
+            member.setAge(age);
+        }
+        return true;
+    }
+
+    /**
+     * 탈퇴 - 사물함(locker.member_id -> member.id)을 먼저 삭제한다. 관심 상품 연결 행은 Hibernate 가 지운다.
+     *
+     * @return 없는 회원이면 false
+     */
+    public boolean delete(String id) {
+        Member member = em.find(Member.class, id);
+        if (member == null) {
+            return false;
+        }
+        Locker locker = lockerRepository.findByMemberId(id);
+        if (locker != null) {
+            em.remove(locker);
+        }
+        member.setTeam(null);
+        em.remove(member);
+        return true;
+    }
+
+    /**
+     * 나이가 minAge ~ maxAge 인 회원의 나이에 delta 를 더한다. - update 한 번
+     * 이미 로딩된 대상 회원은 refresh 해서 맞춘다. 대상 회원이 있는 팀의 집계는 다시 구한다.
+     *
+     * @return 변경된 회원 수
+     */
+    public int addAge(int minAge, int maxAge, int delta) {
+        em.flush();
+        List<String> teamIds = em.createQuery(
+                "select distinct m.team.id from Member m where m.team is not null"
+                    + " and m.age between :minAge and :maxAge", String.class)
+            .setParameter("minAge", minAge)
+            .setParameter("maxAge", maxAge)
+            .getResultList();
+        List<Member> loaded = PersistenceContexts.managed(em, Member.class,
+            member -> member.getAge() != null && member.getAge() >= minAge && member.getAge() <= maxAge);
+        int updated = em.createQuery(
+                "update versioned Member m set m.age = m.age + :delta where m.age between :minAge and :maxAge")
+            .setParameter("delta", delta)
+            .setParameter("minAge", minAge)
+            .setParameter("maxAge", maxAge)
+            .executeUpdate();
+        teamAggregates.recompute(em, teamIds);
+        loaded.forEach(em::refresh);
+        return updated;
+    }
+}
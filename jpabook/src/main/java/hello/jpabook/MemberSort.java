@@ -0,0 +1,11 @@
+package hello.jpabook;
+
+/**
+ * 키셋 페이징 정렬 기준 - 마지막 id 까지 포함해서 순서가 유일하다.
+ * <p>
+ * TEAM : (team_id, id), 팀 없는 회원은 제외
+ * AGE : (age, id), 나이 없는 회원은 제외
+ */
+public enum MemberSort {
+    TEAM, AGE
+}
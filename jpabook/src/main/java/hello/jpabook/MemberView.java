@@ -0,0 +1,7 @@
+package hello.jpabook;
+
+/**
+ * 회원 목록 조회용 (읽기 전용, 엔티티 아님 -> 영속성 컨텍스트에 올라가지 않는다.)
+ */
+public record MemberView(String id, String username, Integer age, String teamName) {
+}
@@ -0,0 +1,290 @@
+package hello.jpabook;
+
+import hello.jpabook.WriteBehindProperties.OverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 회원 이름/나이 수정을 모았다가 한 트랜잭션에 여러 건씩 반영 (write-behind)
+ * <p>
+ * 같은 회원의 수정은 반영 전까지 하나로 합쳐진다 (마지막 값이 이긴다).
+ * 반영은 스레드 하나가 flushInterval 마다 batchSize 씩 : select ... in + 변경 감지 (JDBC 배치)
+ * <p>
+ * 내구성 : 메모리에만 있으므로 반영 전에 JVM 이 죽으면 수정이 사라진다. 종료(close) 시에는 남은 수정을 모두 반영한다.
+ * 바로 읽어야 하는 호출자는 flush() 를 부른다.
+ * 실패 : 배치가 실패하면 회원 한 명씩 다시 반영하고, 그래도 실패하면 retryBackoff * 2^(시도 - 1) (최대 maxRetryBackoff) 뒤에
+ * 다시 시도한다. 재시도는 같은 반영(drain)에서 바로 하지 않고 그 시각이 지난 다음 주기에 한다 -> 짧은 DB 장애는 넘긴다.
+ * maxAttempts 번 실패하면 버린다. flush(), close() 는 기다리지 않고 한 번 더 시도한다.
+ * 그 사이 들어온 새 수정이 있으면 새 값이 이긴다. 없는 회원의 수정은 버린다.
+ * 가득 찼을 때 호출자 반영(CALLER_RUNS)도 반영 락 안에서 한다 -> 같은 회원의 이전 수정보다 먼저 커밋되지 않는다.
+ * <p>
+ * 락 : 수정을 쌓는 쪽(update)은 반영 락을 잡지 않는다. ConcurrentLinkedQueue 는 lock-free 이고
+ * ConcurrentHashMap.compute 는 같은 bin 만 잠깐 잠근다. (회원별 합치기와 용량 확인을 원자적으로 하려고 완전한 lock-free 는 아니다.)
+ * 반영 락(flushLock)은 반영하는 쪽끼리만 순서를 지킨다. 호출자는 가득 찬 CALLER_RUNS 일 때만 잡는다.
+ * <p>
+ * jpabook.write-behind.queue.depth, jpabook.write-behind.updates{result=queued|coalesced|rejected|caller_runs},
+ * jpabook.write-behind.flush (배치 하나 반영 시간), jpabook.write-behind.dropped
+ */
+@Slf4j
+public class MemberWriteBehind implements AutoCloseable {
+
+    // null 인 값은 그대로, retryAt : 재시도 가능한 System.nanoTime() (새 수정은 0)
+    record Change(String username, Integer age, int attempts, long retryAt) {
+
+        // 새 값이 이기지만 재시도 대기 시각은 유지한다.
+        Change then(Change newer) {
+            return new Change(newer.username != null ? newer.username : username,
+                newer.age != null ? newer.age : age, newer.attempts, Math.max(retryAt, newer.retryAt));
+        }
+
+        boolean waiting(long now) {
+            return retryAt != 0 && retryAt - now > 0;
+        }
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager em;
+    private final WriteBehindProperties properties;
+
+    // 회원 id -> 합쳐진 수정, 큐에는 map 에 처음 들어간 id 만 넣는다.
+    private final ConcurrentHashMap<String, Change> pending = new ConcurrentHashMap<>();
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    // 재시도 대기 중인 회원 id (flushLock 안에서만)
+    private final ArrayDeque<String> retries = new ArrayDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final ScheduledExecutorService worker;
+    // 반영(drain, 호출자 반영)은 한 번에 하나 : 가상 스레드 호출자가 기다려도 캐리어 스레드를 잡지 않도록 synchronized 대신
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Counter queued;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter callerRuns;
+    private final Counter dropped;
+    private final Timer flushTimer;
+
+    public MemberWriteBehind(TransactionTemplate transactionTemplate, EntityManager em,
+        WriteBehindProperties properties, MeterRegistry registry) {
+        this.transactionTemplate = transactionTemplate;
+        this.em = em;
+        this.properties = properties;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "member-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("jpabook.write-behind.queue.depth", size, AtomicInteger::get).register(registry);
+        this.queued = updates(registry, "queued");
+        this.coalesced = updates(registry, "coalesced");
+        this.rejected = updates(registry, "rejected");
+        this.callerRuns = updates(registry, "caller_runs");
+        this.dropped = Counter.builder("jpabook.write-behind.dropped").register(registry);
+        this.flushTimer = Timer.builder("jpabook.write-behind.flush")
+            .publishPercentiles(0.5, 0.99)
+            .register(registry);
+    }
+
+    private static Counter updates(MeterRegistry registry, String result) {
+        return Counter.builder("jpabook.write-behind.updates").tag("result", result).register(registry);
+    }
+
+    public void start() {
+        long interval = properties.getFlushInterval().toNanos();
+        worker.scheduleWithFixedDelay(() -> drain(false), interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return 큐가 가득 차서 거절되면 false (OverflowPolicy.REJECT)
+     */
+    public boolean update(String memberId, String username, Integer age) {
+        Change change = new Change(username, age, 0, 0);
+        boolean[] added = new boolean[1];
+        Change merged = pending.compute(memberId, (id, current) -> {
+            if (current != null) {
+                return current.then(change);
+            }
+            if (size.incrementAndGet() > properties.getCapacity()) {
+                size.decrementAndGet();
+                return null;
+            }
+            added[0] = true;
+            return change;
+        });
+        if (merged == null) {
+            return overflow(memberId, change);
+        }
+        if (added[0]) {
+            queue.offer(memberId);
+            queued.increment();
+        } else {
+            coalesced.increment();
+        }
+        return true;
+    }
+
+    private boolean overflow(String memberId, Change change) {
+        if (properties.getOverflowPolicy() == OverflowPolicy.REJECT) {
+            rejected.increment();
+            return false;
+        }
+        // worker 가 이미 꺼낸 같은 회원의 이전 수정이 있으면 그 배치가 끝난 뒤에 반영한다.
+        flushLock.lock();
+        try {
+            // 그 사이 재시도로 되돌아온 이전 수정이 있으면 합친다. (새 값이 이긴다, 반영은 drain)
+            if (pending.computeIfPresent(memberId, (id, current) -> current.then(change)) != null) {
+                coalesced.increment();
+                return true;
+            }
+            callerRuns.increment();
+            transactionTemplate.executeWithoutResult(status -> apply(Map.of(memberId, change)));
+        } finally {
+            flushLock.unlock();
+        }
+        return true;
+    }
+
+    /**
+     * 지금까지 쌓인 수정을 모두 반영 (호출한 스레드에서)
+     */
+    public void flush() {
+        drain(true);
+    }
+
+    public int depth() {
+        return size.get();
+    }
+
+    // worker, flush(), 호출자 반영이 동시에 반영하지 않는다. (같은 회원의 수정이 순서대로 커밋된다)
+    // retryNow : 재시도 대기 시각을 기다리지 않는다. 이번 반영에서 실패한 수정은 어느 쪽이든 다음 반영까지 기다린다.
+    private void drain(boolean retryNow) {
+        flushLock.lock();
+        try {
+            queue.addAll(retries);
+            retries.clear();
+            long now = System.nanoTime();
+            Map<String, Change> batch;
+            while (!(batch = poll(retryNow, now)).isEmpty()) {
+                flushBatch(batch);
+            }
+        } catch (RuntimeException e) {
+            // 스케줄러가 멈추지 않도록
+            log.error("write-behind flush failed", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private Map<String, Change> poll(boolean retryNow, long now) {
+        Map<String, Change> batch = new LinkedHashMap<>();
+        String id;
+        while (batch.size() < properties.getBatchSize() && (id = queue.poll()) != null) {
+            Change waiting = pending.get(id);
+            if (waiting != null && !retryNow && waiting.waiting(now)) {
+                retries.add(id);
+                continue;
+            }
+            Change change = pending.remove(id);
+            if (change != null) {
+                size.decrementAndGet();
+                batch.put(id, change);
+            }
+        }
+        return batch;
+    }
+
+    private void flushBatch(Map<String, Change> batch) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(batch));
+        } catch (RuntimeException e) {
+            log.warn("write-behind batch of {} failed, retrying one by one", batch.size(), e);
+            batch.forEach(this::flushOne);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flushOne(String id, Change change) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(Map.of(id, change)));
+        } catch (RuntimeException e) {
+            retry(id, change, e);
+        }
+    }
+
+    private void retry(String id, Change change, RuntimeException cause) {
+        int attempts = change.attempts() + 1;
+        if (attempts >= properties.getMaxAttempts()) {
+            dropped.increment();
+            log.error("write-behind dropped update of member {} after {} attempts", id, attempts, cause);
+            return;
+        }
+        Change failed = new Change(change.username(), change.age(), attempts, System.nanoTime() + backoff(attempts));
+        boolean[] added = new boolean[1];
+        pending.compute(id, (key, newer) -> {
+            if (newer != null) {
+                return failed.then(newer);
+            }
+            size.incrementAndGet();
+            added[0] = true;
+            return failed;
+        });
+        // 새 수정이 있으면 이미 큐에 있다. (poll 이 대기 시각까지 retries 로 미룬다)
+        if (added[0]) {
+            retries.add(id);
+        }
+    }
+
+    private long backoff(int attempts) {
+        long backoff = properties.getRetryBackoff().toNanos() << Math.min(attempts - 1, 20);
+        return Math.min(backoff, properties.getMaxRetryBackoff().toNanos());
+    }
+
+    private void apply(Map<String, Change> changes) {
+        List<Member> members = em.createQuery("select m from Member m where m.id in :ids", Member.class)
+            .setParameter("ids", new ArrayList<>(changes.keySet()))
+            .getResultList();
+        if (members.size() < changes.size()) {
+            long missing = changes.size() - members.size();
+            dropped.increment(missing);
+            log.warn("write-behind dropped {} updates of missing members", missing);
+        }
+        for (Member member : members) {
+            Change change = changes.get(member.getId());
+            if (change.username() != null) {
+                member.setUsername(change.username());
+            }
+            if (change.age() != null) {
+                member.setAge(change.age());
+            }
+        }
+    }
+
+    /**
+     * 새 작업을 멈추고 남은 수정을 모두 반영
+     */
+    @Override
+    public void close() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(10, TimeUnit.SECONDS);
+        drain(true);
+    }
+}
@@ -0,0 +1,48 @@
+package hello.jpabook;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+/**
+ * 주문 (ManyToManyTest3 의 비식별 관계 연결 엔티티)
+ * <p>
+ * 식별자 : 시퀀스를 allocation size 만큼 한 번에 받아(pooled-lo) 메모리에서 나눠 준다.
+ * persist 마다 시퀀스를 조회하지 않으므로 insert 를 JDBC batch 로 묶을 수 있다. (OrderIdGenerator)
+ */
+@Entity
+@Table(name = "orders") // order 는 예약어
+@Getter
+@Setter
+public class Order {
+
+    @Id
+    @GeneratedValue(generator = "order_seq")
+    @GenericGenerator(name = "order_seq", type = OrderIdGenerator.class,
+        parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "order_seq"))
+    @Column(name = "order_id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id")
+    private Member member;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    private int orderAmount;
+
+    public Order() {
+    }
+}
@@ -0,0 +1,32 @@
+package hello.jpabook;
+
+import java.util.Properties;
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Order 식별자 생성기
+ * <p>
+ * allocation size : spring.jpa.properties.jpabook.order.id.allocation_size (기본 50)
+ * optimizer : ConcurrentPooledLoOptimizer (하이버네이트 기본 pooled-lo 는 synchronized)
+ */
+public class OrderIdGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE = "jpabook.order.id.allocation_size";
+    static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry)
+        throws MappingException {
+        int allocationSize = serviceRegistry.getService(ConfigurationService.class)
+            .getSetting(ALLOCATION_SIZE, StandardConverters.INTEGER, DEFAULT_ALLOCATION_SIZE);
+        parameters.put(OptimizableGenerator.INCREMENT_PARAM, String.valueOf(allocationSize));
+        parameters.put(OptimizableGenerator.OPT_PARAM, ConcurrentPooledLoOptimizer.class.getName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,176 @@
+package hello.jpabook;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PersistContext;
+import org.hibernate.event.spi.PersistEvent;
+import org.hibernate.event.spi.PersistEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 영속성 컨텍스트 크기 제한 - 1차 캐시의 엔티티는 EntityManager 가 닫힐 때까지 남는다.
+ * <p>
+ * 1. checkpoint(em), governed(em, stream) : 안전한 지점(이전 엔티티 처리가 끝난 뒤)에서 maxManagedEntities 를 넘었으면 flush + clear.
+ * clear 된 엔티티는 준영속이므로 호출자가 붙잡고 있으면 안 된다.
+ * 2. strict : 로딩/persist 로 maxManagedEntities 를 넘는 순간 IllegalStateException (clear 하지 않고 실패)
+ * 3. 스프링 트랜잭션마다 커밋/롤백 직전 관리 엔티티 수 : jpabook.persistence.context.entities{outcome},
+ * clear 횟수 : jpabook.persistence.context.clears
+ */
+@Slf4j
+public class PersistenceContextGovernor implements TransactionExecutionListener, Integrator {
+
+    private final int maxManagedEntities;
+    private final boolean strict;
+    private final MeterRegistry registry;
+    private final Counter clears;
+
+    public PersistenceContextGovernor(int maxManagedEntities, boolean strict, MeterRegistry registry) {
+        if (maxManagedEntities < 1) {
+            throw new IllegalArgumentException("maxManagedEntities must be positive: " + maxManagedEntities);
+        }
+        this.maxManagedEntities = maxManagedEntities;
+        this.strict = strict;
+        this.registry = registry;
+        this.clears = Counter.builder("jpabook.persistence.context.clears").register(registry);
+    }
+
+    public static int managedEntities(EntityManager em) {
+        return em.unwrap(SessionImplementor.class).getPersistenceContextInternal().getNumberOfManagedEntities();
+    }
+
+    /**
+     * 안전한 지점 : 관리 엔티티가 maxManagedEntities 이상이면 flush + clear (strict 면 실패)
+     *
+     * @return clear 했으면 true
+     */
+    public boolean checkpoint(EntityManager em) {
+        int managed = managedEntities(em);
+        if (managed < maxManagedEntities) {
+            return false;
+        }
+        if (strict) {
+            throw limitExceeded(managed);
+        }
+        em.flush();
+        em.clear();
+        clears.increment();
+        log.debug("persistence context cleared at {} managed entities", managed);
+        return true;
+    }
+
+    /**
+     * 다음 원소를 꺼내기 전마다 checkpoint - 받은 엔티티는 다음 원소를 요청하기 전까지만 쓴다.
+     */
+    public <T> Stream<T> governed(EntityManager em, Stream<T> stream) {
+        Spliterator<T> source = stream.spliterator();
+        Spliterator<T> checked = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                checkpoint(em);
+                return source.tryAdvance(action);
+            }
+        };
+        return StreamSupport.stream(checked, false).onClose(stream::close);
+    }
+
+    private IllegalStateException limitExceeded(int managed) {
+        return new IllegalStateException("persistence context has " + managed
+            + " managed entities, limit is " + maxManagedEntities);
+    }
+
+    @Override
+    public void beforeCommit(TransactionExecution transaction) {
+        record("commit");
+    }
+
+    @Override
+    public void beforeRollback(TransactionExecution transaction) {
+        record("rollback");
+    }
+
+    private void record(String outcome) {
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                DistributionSummary.builder("jpabook.persistence.context.entities")
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry)
+                    .record(managedEntities(holder.getEntityManager()));
+            }
+        }
+    }
+
+    // strict 일 때만 : 로딩, persist 마다 크기 확인 (둘 다 max 개까지 허용, max + 1 번째에서 실패)
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+        SessionFactoryImplementor sessionFactory) {
+        if (!strict) {
+            return;
+        }
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        StrictListener listener = new StrictListener();
+        // 로딩 : 엔티티가 추가된 뒤에 센다.
+        listeners.appendListeners(EventType.POST_LOAD, listener);
+        // persist : 기본 리스너보다 먼저, 추가되기 전에 들어올 엔티티까지 세어서 막는다.
+        listeners.prependListeners(EventType.PERSIST, listener);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private class StrictListener implements PostLoadEventListener, PersistEventListener {
+
+        @Override
+        public void onPostLoad(PostLoadEvent event) {
+            check(event.getSession(), 0);
+        }
+
+        @Override
+        public void onPersist(PersistEvent event) {
+            checkPersist(event);
+        }
+
+        @Override
+        public void onPersist(PersistEvent event, PersistContext createdAlready) {
+            checkPersist(event);
+        }
+
+        // 이미 관리 중인 엔티티를 다시 persist 하면 늘어나지 않는다.
+        private void checkPersist(PersistEvent event) {
+            SharedSessionContractImplementor session = event.getSession();
+            int incoming = session.getPersistenceContextInternal().isEntryFor(event.getObject()) ? 0 : 1;
+            check(session, incoming);
+        }
+
+        private void check(SharedSessionContractImplementor session, int incoming) {
+            int managed = session.getPersistenceContextInternal().getNumberOfManagedEntities() + incoming;
+            if (managed > maxManagedEntities) {
+                throw limitExceeded(managed);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+
+/**
+ * 벌크 연산(JPQL update/delete)은 영속성 컨텍스트를 거치지 않는다.
+ * 벌크 연산 전에 영향을 받을 영속 엔티티를 찾아 두고, 연산 후 refresh/detach 해서 맞춘다.
+ */
+final class PersistenceContexts {
+
+    private PersistenceContexts() {
+    }
+
+    static <T> List<T> managed(EntityManager em, Class<T> type, Predicate<T> filter) {
+        List<T> result = new ArrayList<>();
+        Map.Entry<Object, EntityEntry>[] entries = em.unwrap(SessionImplementor.class)
+            .getPersistenceContextInternal()
+            .reentrantSafeEntityEntries();
+        for (Map.Entry<Object, EntityEntry> entry : entries) {
+            if (type.isInstance(entry.getKey())) {
+                T entity = type.cast(entry.getKey());
+                if (filter.test(entity)) {
+                    result.add(entity);
+                }
+            }
+        }
+        return result;
+    }
+
+    // 프록시의 getId() 는 초기화하지 않는다.
+    static boolean isTeam(Member member, String teamId) {
+        return member.getTeam() != null && member.getTeam().getId().equals(teamId);
+    }
+}
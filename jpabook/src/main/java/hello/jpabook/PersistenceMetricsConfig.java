@@ -0,0 +1,63 @@
+package hello.jpabook;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 영속성 계층 지표 : DEBUG/TRACE 로그 대신 Micrometer (JMX 로도 노출)
+ * <p>
+ * sql 종류별 실행 수(StatementInspector), 쿼리별 지연 시간/row 수(Statistics), 트랜잭션 시간.
+ * flush, 엔티티 load/insert/update 수는 hibernate-micrometer 의 hibernate.* 지표로 나간다.
+ * 트랜잭션별 영속성 컨텍스트 크기는 PersistenceContextGovernor.
+ * Team 집계 증분 유지(TeamAggregates)도 같은 IntegratorProvider 로 이벤트 리스너를 등록한다.
+ */
+@Configuration
+public class PersistenceMetricsConfig {
+
+    @Bean
+    public SqlStatementMetrics sqlStatementMetrics(MeterRegistry registry) {
+        return new SqlStatementMetrics(registry);
+    }
+
+    @Bean
+    public TransactionMetrics transactionMetrics(MeterRegistry registry) {
+        return new TransactionMetrics(registry);
+    }
+
+    @Bean
+    public PersistenceContextGovernor persistenceContextGovernor(
+        @Value("${jpabook.persistence-context.max-managed-entities:10000}") int maxManagedEntities,
+        @Value("${jpabook.persistence-context.strict:false}") boolean strict,
+        MeterRegistry registry) {
+        return new PersistenceContextGovernor(maxManagedEntities, strict, registry);
+    }
+
+    @Bean
+    public TeamAggregates teamAggregates(MeterRegistry registry) {
+        return new TeamAggregates(registry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer persistenceMetricsCustomizer(SqlStatementMetrics sqlStatementMetrics,
+        PersistenceContextGovernor governor, TeamAggregates teamAggregates, MeterRegistry registry,
+        @Value("${jpabook.query.max-tags:100}") int maxQueryTags) {
+        // QueryTimingStatistics 는 하이버네이트 내부 구현(org.hibernate.stat.internal.StatisticsImpl)을 상속한다.
+        // 하이버네이트를 올릴 때 queryExecuted 의 시그니처/호출 시점이 바뀌었는지 PersistenceMetricsTest 로 확인한다.
+        StatisticsFactory statisticsFactory =
+            sessionFactory -> new QueryTimingStatistics(sessionFactory, registry, maxQueryTags);
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementMetrics);
+            hibernateProperties.put(AvailableSettings.STATS_BUILDER, statisticsFactory);
+            hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(governor, teamAggregates));
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package hello.jpabook;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table
+@Getter
+@Setter
+public class Product {
+
+    @Id
+    @Column(name = "product_id")
+    private String id;
+    private String name;
+
+    public Product() {
+    }
+}
@@ -0,0 +1,75 @@
+package hello.jpabook;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * 쿼리 캐시 region 별 히트/미스/put, 히트율
+ * <p>
+ * jpabook.query.cache.requests{region, result=hit|miss}, jpabook.query.cache.puts{region},
+ * jpabook.query.cache.hit.ratio{region}
+ */
+@Component
+public class QueryCacheMetrics implements MeterBinder {
+
+    static final List<String> REGIONS = List.of(Member.FIND_BY_TEAM_NAME);
+
+    private final EntityManagerFactory emf;
+    private volatile Statistics statistics;
+
+    public QueryCacheMetrics(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    // 처음 읽을 때 꺼낸다. 생성자에서 unwrap 하면 백그라운드 부트스트랩(JpaBootstrapConfig)이 끝날 때까지 기다린다.
+    private Statistics statistics() {
+        Statistics result = statistics;
+        if (result == null) {
+            result = emf.unwrap(SessionFactory.class).getStatistics();
+            statistics = result;
+        }
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : REGIONS) {
+            FunctionCounter.builder("jpabook.query.cache.requests", this,
+                    m -> count(m.statistics(), region, CacheRegionStatistics::getHitCount))
+                .tags("region", region, "result", "hit")
+                .register(registry);
+            FunctionCounter.builder("jpabook.query.cache.requests", this,
+                    m -> count(m.statistics(), region, CacheRegionStatistics::getMissCount))
+                .tags("region", region, "result", "miss")
+                .register(registry);
+            FunctionCounter.builder("jpabook.query.cache.puts", this,
+                    m -> count(m.statistics(), region, CacheRegionStatistics::getPutCount))
+                .tags("region", region)
+                .register(registry);
+            Gauge.builder("jpabook.query.cache.hit.ratio", this, m -> hitRatio(m.statistics(), region))
+                .tags("region", region)
+                .register(registry);
+        }
+    }
+
+    static double hitRatio(Statistics statistics, String region) {
+        long hit = count(statistics, region, CacheRegionStatistics::getHitCount);
+        long miss = count(statistics, region, CacheRegionStatistics::getMissCount);
+        return hit + miss == 0 ? 0 : (double) hit / (hit + miss);
+    }
+
+    // region 은 처음 사용될 때 만들어진다. 그 전에는 null
+    private static long count(Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> getter) {
+        CacheRegionStatistics regionStatistics = statistics.getQueryRegionStatistics(region);
+        return regionStatistics == null ? 0 : getter.applyAsLong(regionStatistics);
+    }
+}
@@ -0,0 +1,114 @@
+package hello.jpabook;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.metamodel.EntityType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+/**
+ * Hibernate Statistics 는 쿼리(HQL)별 평균/최대 시간만 갖고 있다.
+ * 실행될 때마다 Micrometer 로 넘겨서 실행 수/합계/최대 시간과 반환 row 수를 남긴다.
+ * <p>
+ * jpabook.query.execution{query}, jpabook.query.rows{query}
+ * <p>
+ * 시간 단위 : 하이버네이트가 queryExecuted 에 밀리초(정수)로 넘긴다. 대부분의 H2 쿼리는 0ms 로 기록되므로
+ * 백분위(p50, p99)는 내보내지 않는다. 쿼리별 지연 시간 분포가 필요하면 JDBC 단에서 나노초로 재야 한다.
+ * <p>
+ * query 태그 : named query 는 이름, 나머지는 리터럴을 ? 로 바꾸고 공백을 줄인 HQL (최대 200자).
+ * 동적 JPQL 로 태그 값이 끝없이 늘지 않게 maxQueries 개를 넘으면 "other" 로 모은다.
+ * meter 는 태그마다 한 번만 등록하고 HQL -> meter 로 기억한다. (실행마다 builder/register 하지 않는다)
+ */
+public class QueryTimingStatistics extends StatisticsImpl {
+
+    static final String OTHER = "other";
+    static final int MAX_QUERY_LENGTH = 200;
+
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private record Meters(Timer execution, DistributionSummary rows) {
+    }
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final MeterRegistry registry;
+    private final int maxQueries;
+    // HQL -> meter (maxQueries * 10 개까지만 기억, 넘으면 매번 태그를 구한다)
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    // 태그 -> meter
+    private final Map<String, Meters> metersByTag = new ConcurrentHashMap<>();
+    // named query HQL -> 이름 (처음 실행될 때 만든다. 생성 시점에는 메타모델이 아직 없다.)
+    private volatile Map<String, String> namedQueries;
+
+    public QueryTimingStatistics(SessionFactoryImplementor sessionFactory, MeterRegistry registry, int maxQueries) {
+        super(sessionFactory);
+        this.sessionFactory = sessionFactory;
+        this.registry = registry;
+        this.maxQueries = maxQueries;
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        Meters query = metersOf(hql);
+        query.execution().record(time, TimeUnit.MILLISECONDS);
+        query.rows().record(rows);
+    }
+
+    private Meters metersOf(String hql) {
+        Meters query = meters.get(hql);
+        if (query != null) {
+            return query;
+        }
+        String tag = tagOf(hql);
+        // 동시에 들어오면 maxQueries 를 조금 넘을 수 있다.
+        if (!metersByTag.containsKey(tag) && metersByTag.size() >= maxQueries) {
+            tag = OTHER;
+        }
+        query = metersByTag.computeIfAbsent(tag, this::register);
+        if (meters.size() < maxQueries * 10) {
+            meters.put(hql, query);
+        }
+        return query;
+    }
+
+    private Meters register(String tag) {
+        return new Meters(
+            Timer.builder("jpabook.query.execution").tag("query", tag).register(registry),
+            DistributionSummary.builder("jpabook.query.rows").tag("query", tag).register(registry));
+    }
+
+    private String tagOf(String hql) {
+        String name = namedQueries().get(hql);
+        return name != null ? name : normalize(hql);
+    }
+
+    static String normalize(String hql) {
+        String normalized = STRING.matcher(hql).replaceAll("?");
+        normalized = NUMBER.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > MAX_QUERY_LENGTH ? normalized.substring(0, MAX_QUERY_LENGTH) : normalized;
+    }
+
+    private Map<String, String> namedQueries() {
+        Map<String, String> named = namedQueries;
+        if (named == null) {
+            named = new HashMap<>();
+            for (EntityType<?> entity : sessionFactory.getMetamodel().getEntities()) {
+                for (NamedQuery namedQuery : entity.getJavaType().getAnnotationsByType(NamedQuery.class)) {
+                    named.put(namedQuery.query(), namedQuery.name());
+                }
+            }
+            namedQueries = named;
+        }
+        return named;
+    }
+}
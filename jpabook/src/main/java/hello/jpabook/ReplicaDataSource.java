@@ -0,0 +1,136 @@
+package hello.jpabook;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * 읽기 전용 커넥션 - 정상인 복제본을 돌아가며 쓰고, 없으면 primary 로 (fallback)
+ * <p>
+ * checkInterval 마다 복제본마다 lagQuery 를 실행해서 지연이 maxLag 이하인 복제본만 정상으로 본다.
+ * 커넥션을 얻다 실패한 복제본은 다음 확인 때까지 쓰지 않는다.
+ * <p>
+ * jpabook.replica.healthy (정상 복제본 수), jpabook.replica.fallbacks (primary 로 보낸 수)
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    static final class Replica {
+
+        final HikariDataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final HikariDataSource primary;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final Duration checkInterval;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker;
+    private final Counter fallbacks;
+
+    public ReplicaDataSource(List<HikariDataSource> replicas, HikariDataSource primary, ReplicaProperties properties,
+        MeterRegistry registry) {
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.primary = primary;
+        this.lagQuery = properties.getLagQuery();
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.checkInterval = properties.getCheckInterval();
+        this.checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("jpabook.replica.healthy", this, ReplicaDataSource::healthyCount).register(registry);
+        this.fallbacks = Counter.builder("jpabook.replica.fallbacks").register(registry);
+    }
+
+    public void start() {
+        long interval = checkInterval.toNanos();
+        checker.scheduleWithFixedDelay(this::checkReplicas, 0, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.healthy = false;
+                log.warn("replica {} unavailable", replica.dataSource.getPoolName(), e);
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    // 계정은 복제본마다 설정한다. (ReplicaProperties.Node)
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("username/password are configured per replica");
+    }
+
+    /**
+     * 복제본 상태 갱신 - 연결 실패, lagQuery 실패, 지연이 maxLag 초과면 쓰지 않는다.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            replica.healthy = check(replica);
+        }
+    }
+
+    private boolean check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (lagQuery == null) {
+                return connection.isValid(1);
+            }
+            try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                long lag = rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+                if (lag > maxLagMillis) {
+                    log.warn("replica {} lag {}ms > {}ms", replica.dataSource.getPoolName(), lag, maxLagMillis);
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            log.warn("replica {} check failed", replica.dataSource.getPoolName(), e);
+            return false;
+        }
+    }
+
+    public int healthyCount() {
+        return (int) replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+}
@@ -0,0 +1,44 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import java.sql.SQLException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * readOnly 트랜잭션(복제본으로 가는 트랜잭션)은 2차 캐시/쿼리 캐시를 읽기만 한다. (CacheMode.GET)
+ * <p>
+ * 복제본은 max-lag 까지 늦을 수 있다. 복제본에서 읽은 값을 캐시에 넣으면 그 지연이 region TTL(10m) 동안 남고
+ * primary 를 읽는 트랜잭션에도 보인다. 캐시는 primary 트랜잭션(쓰기, readOnly 아닌 조회)만 채운다.
+ * 트랜잭션이 끝나면 이전 CacheMode 로 되돌린다.
+ */
+class ReplicaJpaDialect extends HibernateJpaDialect {
+
+    private record TransactionData(Object hibernateData, Session session, CacheMode previousCacheMode) {
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+        throws SQLException {
+        Object hibernateData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return hibernateData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new TransactionData(hibernateData, session, previous);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof TransactionData data) {
+            data.session().setCacheMode(data.previousCacheMode());
+            super.cleanupTransaction(data.hibernateData());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+}
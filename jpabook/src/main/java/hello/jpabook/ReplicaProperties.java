@@ -0,0 +1,40 @@
+package hello.jpabook;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 읽기 전용 복제본 설정 - readOnly 트랜잭션은 복제본으로, 나머지는 spring.datasource (primary) 로
+ * <pre>
+ * jpabook.replica.enabled=true
+ * jpabook.replica.nodes[0].url=jdbc:...
+ * jpabook.replica.lag-query=select ... (복제 지연 ms 를 돌려주는 쿼리)
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties("jpabook.replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+    private List<Node> nodes = new ArrayList<>();
+    // 복제 지연 ms 를 돌려주는 쿼리, 없으면 연결만 확인한다.
+    private String lagQuery;
+    // 지연이 이보다 크면 그 복제본을 쓰지 않는다.
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration checkInterval = Duration.ofSeconds(1);
+
+    @Getter
+    @Setter
+    public static class Node {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
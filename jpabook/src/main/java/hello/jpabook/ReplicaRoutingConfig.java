@@ -0,0 +1,80 @@
+package hello.jpabook;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * jpabook.replica.enabled=true 일 때 DataSource 를 읽기/쓰기로 나눈다.
+ * <p>
+ * LazyConnectionDataSourceProxy 는 첫 sql 을 실행할 때 커넥션을 얻는다.
+ * 그 전에 @Transactional(readOnly = true) 가 connection.setReadOnly(true) 를 부르면 복제본(ReplicaDataSource)에서,
+ * 아니면 primary 에서 얻는다.
+ * 스키마 생성(ddl-auto)과 쓰기는 primary 로만 나간다.
+ * readOnly 트랜잭션은 2차 캐시/쿼리 캐시에 넣지 않는다. (ReplicaJpaDialect)
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "jpabook.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, ReplicaProperties properties,
+        MeterRegistry registry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReplicaProperties.Node node = properties.getNodes().get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(node.getUsername());
+            replica.setPassword(node.getPassword());
+            replica.setMaximumPoolSize(node.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaDataSource(replicas, primaryDataSource, properties, registry);
+    }
+
+    // vendor adapter 의 HibernateJpaDialect 대신 (EntityManagerFactory 초기화 전에 설정해야 트랜잭션 매니저도 같은 것을 쓴다)
+    @Bean
+    public static BeanPostProcessor replicaJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean factoryBean) {
+                    factoryBean.setJpaDialect(new ReplicaJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,32 @@
+package hello.jpabook;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 2차 캐시 region 설정 (key : region 이름 = 엔티티 클래스 이름, 컬렉션은 클래스 이름.필드)
+ * <pre>
+ * jpabook.cache.regions.[hello.jpabook.Member].maximum-size=10000
+ * jpabook.cache.regions.[hello.jpabook.Member].time-to-live=10m
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties("jpabook.cache")
+public class SecondLevelCacheProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+
+        private long maximumSize = 10_000;
+        // 0 이면 만료 없음
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,86 @@
+package hello.jpabook;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate 가 prepare 하는 sql 을 종류별로 센다. (로그 대신, 바인딩 파라미터 포맷팅 없음)
+ * jpabook.sql.statements{type=select|insert|update|delete|other}
+ * <p>
+ * JDBC batch 는 prepare 가 한 번이므로 batch 당 1로 센다.
+ * 테스트는 addListener 로 sql 을 직접 받아 개수를 검증한다. (N+1 회귀)
+ */
+public class SqlStatementMetrics implements StatementInspector {
+
+    public enum Type {
+        SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+        public static Type of(String sql) {
+            String keyword = firstKeyword(sql);
+            return switch (keyword) {
+                case "select", "with" -> SELECT;
+                case "insert" -> INSERT;
+                case "update" -> UPDATE;
+                case "delete" -> DELETE;
+                default -> OTHER;
+            };
+        }
+
+        // 앞쪽 공백, /* 주석 */ 을 건너뛴 첫 단어
+        private static String firstKeyword(String sql) {
+            int i = 0;
+            int length = sql.length();
+            while (i < length) {
+                if (Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                } else if (sql.startsWith("/*", i)) {
+                    int end = sql.indexOf("*/", i + 2);
+                    i = end < 0 ? length : end + 2;
+                } else {
+                    break;
+                }
+            }
+            int start = i;
+            while (i < length && Character.isLetter(sql.charAt(i))) {
+                i++;
+            }
+            return sql.substring(start, i).toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<Type, Counter> counters = new EnumMap<>(Type.class);
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public SqlStatementMetrics(MeterRegistry registry) {
+        for (Type type : Type.values()) {
+            counters.put(type, Counter.builder("jpabook.sql.statements")
+                .description("prepared JDBC statements")
+                .tag("type", type.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+        }
+    }
+
+    @Override
+    public String inspect(String sql) {
+        counters.get(Type.of(sql)).increment();
+        for (Consumer<String> listener : listeners) {
+            listener.accept(sql);
+        }
+        return sql;
+    }
+
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+}
@@ -1,25 +1,91 @@
 package hello.jpabook;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
-import java.util.ArrayList;
-import java.util.List;
+import jakarta.persistence.UniqueConstraint;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table
+// 팀 이름으로 조회 (Member.FIND_BY_TEAM_NAME) - 이름은 팀마다 하나
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_team_name", columnNames = "name"))
 @Getter
 @Setter
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = Team.WITH_MEMBERS, attributeNodes = @NamedAttributeNode("members"))
 public class Team {
 
+    public static final String WITH_MEMBERS = "Team.withMembers";
+
     @Id
     private String id;
     private String name;
+    // 지연 로딩 시 여러 팀의 members 를 in(...) 한 번으로 초기화
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    // Set : equals/hashCode 를 재정의하지 않았으므로 식별자(인스턴스) 기준 -> add/remove O(1)
     @OneToMany(mappedBy = "team")
-    private List<Member> members = new ArrayList<>();
+    private Set<Member> members = new HashSet<>();
+
+    /*
+    집계 (회원 수, 나이 통계) - members 를 로딩하거나 Member 를 집계하지 않고 팀 한 row 로 읽는다.
+    TeamAggregates 가 커밋 직전 sql 로 증감한다. 엔티티 update 가 오래된 값으로 덮어쓰지 않도록 updatable = false
+    엔티티 값은 로딩한 시점 기준이다. 2차 캐시는 집계가 바뀐 팀만 커밋 후 지운다.
+    최신 값은 MemberQueryService.findTeamStats (같은 트랜잭션의 변경은 커밋 후에 보인다)
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false, updatable = false)
+    private long memberCount;
+    // 나이가 있는 회원 수 (평균의 분모)
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false, updatable = false)
+    private long ageCount;
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false, updatable = false)
+    private long ageSum;
+    @Setter(AccessLevel.NONE)
+    @Column(updatable = false)
+    private Integer minAge;
+    @Setter(AccessLevel.NONE)
+    @Column(updatable = false)
+    private Integer maxAge;
+
     public Team() {
     }
+
+    public Double getAverageAge() {
+        return ageCount == 0 ? null : (double) ageSum / ageCount;
+    }
+
+    /*
+    연관관계의 주인은 Member.team 이다. members 는 객체 그래프 탐색용이므로
+    이미 로딩된(초기화된) 경우에만 맞춰 준다. 초기화되지 않은 프록시/컬렉션을 건드리면 select 가 나간다.
+    초기화되지 않은 컬렉션은 나중에 로딩될 때 데이터베이스 기준으로 채워진다. (flush 이후 반영)
+    2차 캐시의 members 는 hibernate.cache.auto_evict_collection_cache 로 Member.team 이 바뀐 두 팀 것만 지운다.
+     */
+    void addMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.add(member);
+        }
+    }
+
+    void removeMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+    }
 }
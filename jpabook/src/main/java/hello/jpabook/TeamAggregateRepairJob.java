@@ -0,0 +1,65 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * interval 마다 Team 집계를 member 와 맞춘다. (TeamAggregates.repair, 트랜잭션 하나)
+ * 증분이 빠지는 경로(벌크 sql, 다른 애플리케이션의 쓰기, 동시 min/max)를 따라잡는다.
+ */
+@Slf4j
+public class TeamAggregateRepairJob implements AutoCloseable {
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager em;
+    private final TeamAggregates teamAggregates;
+    private final Duration interval;
+    private final ScheduledExecutorService worker;
+
+    public TeamAggregateRepairJob(TransactionTemplate transactionTemplate, EntityManager em,
+        TeamAggregates teamAggregates, Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        this.transactionTemplate = transactionTemplate;
+        this.em = em;
+        this.teamAggregates = teamAggregates;
+        this.interval = interval;
+        this.worker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "team-aggregate-repair");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        worker.scheduleWithFixedDelay(this::runSafely, interval.toMillis(), interval.toMillis(),
+            TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return 고친 팀 수
+     */
+    public int run() {
+        return transactionTemplate.execute(status -> teamAggregates.repair(em));
+    }
+
+    private void runSafely() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            // 다음 주기에 다시
+            log.warn("team aggregate repair failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,332 @@
+package hello.jpabook;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FlushMode;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Team 집계 컬럼(memberCount, ageCount, ageSum, minAge, maxAge) 증분 유지
+ * <p>
+ * 1. flush 때 Member insert/update/delete 이벤트에서 팀별 증감(Delta)을 세션마다 모은다. (sql 없음)
+ * persist, remove, Member.setTeam, setAge 모두 flush 되는 row 기준이므로 어느 경로든 같다.
+ * 2. 커밋 직전(마지막 flush 뒤) 같은 트랜잭션에서 팀마다 update 한 번 : member_count = member_count + ?
+ * 읽고-계산하고-쓰지 않고 데이터베이스가 더하므로, 동시에 커밋하는 트랜잭션은 팀 row 락을 차례로 잡고 증감이 모두 반영된다.
+ * 팀 id 순서로 update -> 여러 팀을 바꾸는 트랜잭션끼리 교착 상태가 생기지 않는다.
+ * 3. min/max 는 더하기로 되돌릴 수 없으므로 나이가 빠진(삭제, 팀 이동, 나이 변경) 팀만 member 에서 다시 구한다.
+ * 동시에 다른 트랜잭션이 같은 팀에 회원을 넣는 경우 min/max 만 어긋날 수 있다 -> repair()
+ * <p>
+ * 벌크 jpql/sql, StatelessSession 은 이벤트가 없으므로 호출하는 쪽이 recompute/repair 를 부른다.
+ * 2차 캐시 : 집계 update 를 team 에 동기화하면 커밋마다 Team region 전체와 team 쿼리 캐시가 지워진다.
+ * 집계 컬럼만 바꾸므로 별도 query space 로 실행하고, 커밋 후 바꾼 팀만 2차 캐시에서 지운다.
+ * jpabook.team.aggregates.updates : 증분 update 수, jpabook.team.aggregates.repaired : repair 로 고친 팀 수
+ */
+@Slf4j
+public class TeamAggregates implements Integrator {
+
+    // 어떤 엔티티/쿼리 캐시와도 겹치지 않는 query space (Team region 전체 무효화 방지)
+    private static final String AGGREGATE_SPACE = "team_aggregates";
+
+    private static final String COUNT = "(select count(*) from member m where m.team_id = team.id)";
+    private static final String AGE_COUNT = "(select count(m.age) from member m where m.team_id = team.id)";
+    private static final String AGE_SUM = "(select coalesce(sum(m.age), 0) from member m where m.team_id = team.id)";
+    private static final String MIN_AGE = "(select min(m.age) from member m where m.team_id = team.id)";
+    private static final String MAX_AGE = "(select max(m.age) from member m where m.team_id = team.id)";
+
+    private static final String RECOMPUTE = "update team set member_count = " + COUNT
+        + ", age_count = " + AGE_COUNT + ", age_sum = " + AGE_SUM
+        + ", min_age = " + MIN_AGE + ", max_age = " + MAX_AGE;
+
+    // 어긋난 팀만 update (null 인 min/max 는 -1 로 비교)
+    private static final String REPAIR = RECOMPUTE + " where member_count <> " + COUNT
+        + " or age_count <> " + AGE_COUNT + " or age_sum <> " + AGE_SUM
+        + " or coalesce(min_age, -1) <> coalesce(" + MIN_AGE + ", -1)"
+        + " or coalesce(max_age, -1) <> coalesce(" + MAX_AGE + ", -1)";
+
+    // 팀 하나의 증감 (트랜잭션 하나 동안)
+    static final class Delta {
+
+        long members;
+        long ages;
+        long ageSum;
+        Integer addedMin;
+        Integer addedMax;
+        // 나이가 빠졌다 -> min/max 다시 구하기
+        boolean rangeRemoved;
+        // 이전 상태를 모른다 -> 전부 다시 구하기
+        boolean unknown;
+
+        void add(Integer age) {
+            members++;
+            if (age != null) {
+                ages++;
+                ageSum += age;
+                addedMin = addedMin == null ? age : Math.min(addedMin, age);
+                addedMax = addedMax == null ? age : Math.max(addedMax, age);
+            }
+        }
+
+        void remove(Integer age) {
+            members--;
+            if (age != null) {
+                ages--;
+                ageSum -= age;
+                rangeRemoved = true;
+            }
+        }
+
+        boolean isEmpty() {
+            return members == 0 && ages == 0 && ageSum == 0 && addedMin == null && !rangeRemoved && !unknown;
+        }
+    }
+
+    // 세션 -> 팀 id -> 증감, 트랜잭션이 끝나면(커밋/롤백) 지운다.
+    private final Map<SessionImplementor, Map<String, Delta>> pending = new ConcurrentHashMap<>();
+    private final Counter updates;
+    private final Counter repaired;
+
+    public TeamAggregates(MeterRegistry registry) {
+        this.updates = Counter.builder("jpabook.team.aggregates.updates").register(registry);
+        this.repaired = Counter.builder("jpabook.team.aggregates.repaired").register(registry);
+    }
+
+    /**
+     * 팀들의 집계를 member 에서 다시 구한다. (벌크 변경 뒤, 호출자 트랜잭션에서)
+     * flush 한 뒤 다시 구하므로 이 트랜잭션에서 모아 둔 그 팀들의 증감은 버린다. (두 번 더하지 않게)
+     */
+    public void recompute(EntityManager em, Collection<String> teamIds) {
+        if (teamIds.isEmpty()) {
+            return;
+        }
+        em.flush();
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        Map<String, Delta> deltas = pending.get(session);
+        if (deltas != null) {
+            deltas.keySet().removeAll(teamIds);
+        }
+        recomputeFlushed(em, teamIds);
+        List<String> ids = List.copyOf(teamIds);
+        session.getActionQueue().registerProcess((success, current) -> {
+            if (success) {
+                evict(current.getFactory(), ids);
+            }
+        });
+    }
+
+    private void recomputeFlushed(EntityManager em, Collection<String> teamIds) {
+        update(em, RECOMPUTE + " where id in (:teamIds)")
+            .setParameterList("teamIds", teamIds)
+            .executeUpdate();
+    }
+
+    /**
+     * 집계가 member 와 다른 팀을 모두 고친다. (팀마다 member 집계 - 팀 수 x 인덱스 범위 조회)
+     * 동시에 커밋되는 증분과 겹치면 다음 repair 에서 맞춰진다.
+     *
+     * @return 고친 팀 수
+     */
+    public int repair(EntityManager em) {
+        em.flush();
+        Map<String, Delta> deltas = pending.get(em.unwrap(SessionImplementor.class));
+        if (deltas != null) {
+            deltas.clear();
+        }
+        int count = update(em, REPAIR).executeUpdate();
+        if (count > 0) {
+            log.warn("team aggregates repaired: {} teams", count);
+            // 어느 팀인지 모른다 -> Team region 전체
+            em.unwrap(SessionImplementor.class).getActionQueue().registerProcess((success, current) -> {
+                if (success) {
+                    current.getFactory().getCache().evictEntityData(Team.class);
+                }
+            });
+        }
+        repaired.increment(count);
+        return count;
+    }
+
+    private static NativeQuery<?> update(EntityManager em, String sql) {
+        return em.createNativeQuery(sql)
+            .unwrap(NativeQuery.class)
+            .addSynchronizedQuerySpace(AGGREGATE_SPACE);
+    }
+
+    // 커밋 후 : 다음 조회가 데이터베이스에서 새 집계를 읽는다.
+    private static void evict(SessionFactoryImplementor sessionFactory, Collection<String> teamIds) {
+        for (String teamId : teamIds) {
+            sessionFactory.getCache().evictEntityData(Team.class, teamId);
+        }
+    }
+
+    private Map<String, Delta> deltas(EventSource session) {
+        SessionImplementor key = session.asSessionImplementor();
+        return pending.computeIfAbsent(key, s -> {
+            // 같은 트랜잭션에서 이벤트가 처음 생길 때 한 번만 등록
+            session.getActionQueue().registerProcess(
+                (SessionImplementor current) -> apply(current, pending.get(current)));
+            session.getActionQueue().registerProcess((success, current) -> {
+                Map<String, Delta> applied = pending.remove(current.asSessionImplementor());
+                if (success && applied != null) {
+                    evict(current.getFactory(), applied.keySet());
+                }
+            });
+            // 팀 id 순서 = update 순서
+            return new TreeMap<>();
+        });
+    }
+
+    private void apply(SessionImplementor session, Map<String, Delta> deltas) {
+        if (deltas == null) {
+            return;
+        }
+        for (Map.Entry<String, Delta> entry : deltas.entrySet()) {
+            Delta delta = entry.getValue();
+            if (delta.isEmpty()) {
+                continue;
+            }
+            if (delta.unknown) {
+                recomputeFlushed(session, List.of(entry.getKey()));
+            } else {
+                NativeQuery<?> query = update(session, "update team set member_count = member_count + :members"
+                    + ", age_count = age_count + :ages, age_sum = age_sum + :ageSum"
+                    + ", min_age = " + range(delta.rangeRemoved, delta.addedMin, "min_age", "least", MIN_AGE)
+                    + ", max_age = " + range(delta.rangeRemoved, delta.addedMax, "max_age", "greatest", MAX_AGE)
+                    + " where id = :teamId")
+                    // 이미 flush 됨 : 팀마다 auto flush(전체 dirty check) 하지 않는다.
+                    .setHibernateFlushMode(FlushMode.MANUAL)
+                    .setParameter("members", delta.members)
+                    .setParameter("ages", delta.ages)
+                    .setParameter("ageSum", delta.ageSum)
+                    .setParameter("teamId", entry.getKey());
+                if (!delta.rangeRemoved && delta.addedMin != null) {
+                    query.setParameter("min_age", delta.addedMin)
+                        .setParameter("max_age", delta.addedMax);
+                }
+                query.executeUpdate();
+            }
+            updates.increment();
+        }
+    }
+
+    // 나이가 빠졌으면 member 에서 다시 구하고(이 트랜잭션의 변경은 flush 되어 있다), 더해졌으면 기존 값과 비교
+    private static String range(boolean removed, Integer added, String column, String function, String recompute) {
+        if (removed) {
+            return recompute;
+        }
+        if (added == null) {
+            return column;
+        }
+        // least(coalesce(min_age, ?), ?) : 비어 있던 팀이면 더해진 값
+        return function + "(coalesce(" + column + ", :" + column + "), :" + column + ")";
+    }
+
+    // Member 이벤트
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+        SessionFactoryImplementor sessionFactory) {
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        MemberListener listener = new MemberListener();
+        listeners.appendListeners(EventType.POST_INSERT, listener);
+        listeners.appendListeners(EventType.POST_UPDATE, listener);
+        listeners.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private class MemberListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Member) {
+                add(event.getSession(), event.getPersister(), event.getState());
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (!(event.getEntity() instanceof Member)) {
+                return;
+            }
+            EntityPersister persister = event.getPersister();
+            Object[] oldState = event.getOldState();
+            Object[] state = event.getState();
+            if (oldState == null) {
+                // 준영속 엔티티 update 등 : 이전 팀을 모른다.
+                String teamId = teamId(persister, state);
+                if (teamId != null) {
+                    deltas(event.getSession()).computeIfAbsent(teamId, id -> new Delta()).unknown = true;
+                }
+                return;
+            }
+            if (Objects.equals(teamId(persister, oldState), teamId(persister, state))
+                && Objects.equals(age(persister, oldState), age(persister, state))) {
+                return;
+            }
+            remove(event.getSession(), persister, oldState);
+            add(event.getSession(), persister, state);
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Member) {
+                remove(event.getSession(), event.getPersister(), event.getDeletedState());
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        private void add(EventSource session, EntityPersister persister, Object[] state) {
+            String teamId = teamId(persister, state);
+            if (teamId != null) {
+                deltas(session).computeIfAbsent(teamId, id -> new Delta()).add(age(persister, state));
+            }
+        }
+
+        private void remove(EventSource session, EntityPersister persister, Object[] state) {
+            String teamId = teamId(persister, state);
+            if (teamId != null) {
+                deltas(session).computeIfAbsent(teamId, id -> new Delta()).remove(age(persister, state));
+            }
+        }
+
+        // 프록시의 getId() 는 초기화하지 않는다.
+        private String teamId(EntityPersister persister, Object[] state) {
+            Team team = (Team) state[persister.getPropertyIndex("team")];
+            return team == null ? null : team.getId();
+        }
+
+        private Integer age(EntityPersister persister, Object[] state) {
+            return (Integer) state[persister.getPropertyIndex("age")];
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * jpabook.team-aggregates.repair-interval 이 있을 때만 TeamAggregateRepairJob 을 등록한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "jpabook.team-aggregates", name = "repair-interval")
+public class TeamAggregatesConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public TeamAggregateRepairJob teamAggregateRepairJob(TransactionTemplate transactionTemplate,
+        EntityManagerFactory emf, TeamAggregates teamAggregates,
+        @Value("${jpabook.team-aggregates.repair-interval}") Duration interval) {
+        return new TeamAggregateRepairJob(transactionTemplate,
+            SharedEntityManagerCreator.createSharedEntityManager(emf), teamAggregates, interval);
+    }
+}
@@ -0,0 +1,50 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.List;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Team 조회 - Team.members 를 어떻게 가져올지 FetchPlan 으로 정한다.
+ */
+@Repository
+public class TeamRepository {
+
+    static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public Team find(String id, FetchPlan plan) {
+        List<Team> result = initialize(query("where t.id = :id", plan)
+            .setParameter("id", id)
+            .getResultList(), plan);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    public List<Team> findAll(FetchPlan plan) {
+        return initialize(query("", plan).getResultList(), plan);
+    }
+
+    private List<Team> initialize(List<Team> teams, FetchPlan plan) {
+        if (plan == FetchPlan.BATCH) {
+            // 첫 초기화 때 나머지 팀의 members 까지 batch fetch size 만큼 함께 로딩된다.
+            teams.forEach(team -> Hibernate.initialize(team.getMembers()));
+        }
+        return teams;
+    }
+
+    private TypedQuery<Team> query(String where, FetchPlan plan) {
+        return switch (plan) {
+            case LAZY, BATCH -> em.createQuery("select t from Team t " + where, Team.class);
+            // 컬렉션 fetch join -> row 가 member 수만큼 늘어나므로 distinct
+            case FETCH_JOIN -> em.createQuery("select distinct t from Team t left join fetch t.members " + where,
+                Team.class);
+            case ENTITY_GRAPH -> em.createQuery("select t from Team t " + where, Team.class)
+                .setHint(FETCH_GRAPH, em.getEntityGraph(Team.WITH_MEMBERS));
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package hello.jpabook;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Transactional
+public class TeamService {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TeamAggregates teamAggregates;
+    private final FavoriteRepository favoriteRepository;
+
+    public TeamService(TeamAggregates teamAggregates, FavoriteRepository favoriteRepository) {
+        this.teamAggregates = teamAggregates;
+        this.favoriteRepository = favoriteRepository;
+    }
+
+    public Team create(String id, String name) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        em.persist(team);
+        return team;
+    }
+
+    /**
+     * fromTeam 소속 회원(memberIds) 을 toTeam 으로 이동
+     * 회원은 in 절 한 번으로 조회하고, 팀의 members 는 로딩하지 않는다.
+     * update 는 flush 시점에 JDBC batch 로 나간다.
+     *
+     * @return 이동한 회원 수 (fromTeam 소속이 아닌 id 는 무시)
+     * @throws InvalidMemberException memberIds 가 없거나 없는 팀(toTeam)
+     */
+    public int transferMembers(String fromTeamId, String toTeamId, Collection<String> memberIds) {
+        if (memberIds == null || memberIds.isEmpty()) {
+            throw new InvalidMemberException("member ids are required");
+        }
+        // 프록시 대신 조회 (대개 2차 캐시) : 없는 팀을 커밋 때 외래 키 위반이 아니라 여기서 알린다.
+        Team toTeam = em.find(Team.class, toTeamId);
+        if (toTeam == null) {
+            throw new InvalidMemberException("unknown team: " + toTeamId);
+        }
+        List<Member> members = em.createQuery(
+                "select m from Member m where m.team.id = :fromTeamId and m.id in :memberIds", Member.class)
+            .setParameter("fromTeamId", fromTeamId)
+            .setParameter("memberIds", memberIds)
+            .getResultList();
+        for (Member member : members) {
+            member.setTeam(toTeam);
+        }
+        return members.size();
+    }
+
+    /**
+     * fromTeam 의 모든 회원을 toTeam 으로 이동 - update 한 번
+     * 이벤트가 없으므로 두 팀의 집계는 다시 구한다.
+     * 이미 로딩된 회원과 두 팀(members, 집계)은 refresh 해서 맞춘다.
+     *
+     * @return 이동한 회원 수
+     */
+    public int reassignAllMembers(String fromTeamId, String toTeamId) {
+        em.flush();
+        List<Member> loaded = PersistenceContexts.managed(em, Member.class,
+            member -> PersistenceContexts.isTeam(member, fromTeamId));
+        int updated = em.createQuery("update versioned Member m set m.team = :toTeam where m.team.id = :fromTeamId")
+            .setParameter("toTeam", em.getReference(Team.class, toTeamId))
+            .setParameter("fromTeamId", fromTeamId)
+            .executeUpdate();
+        teamAggregates.recompute(em, List.of(fromTeamId, toTeamId));
+        loaded.forEach(em::refresh);
+        refreshTeam(fromTeamId);
+        refreshTeam(toTeamId);
+        return updated;
+    }
+
+    public enum MemberHandling {
+        // 회원은 남기고 팀만 비운다. (team_id = null)
+        UNASSIGN,
+        // 회원도 삭제
+        DELETE
+    }
+
+    /**
+     * 팀 삭제 - 회원 처리 update/delete 한 번 + 팀 delete 한 번
+     * 회원도 삭제하면 회원을 참조하는 사물함, 관심 상품 연결 행을 먼저 각각 delete 한 번으로 지운다.
+     *
+     * @return 영향받은 회원 수
+     */
+    public int deleteTeam(String teamId, MemberHandling memberHandling) {
+        em.flush();
+        List<Member> loaded = PersistenceContexts.managed(em, Member.class,
+            member -> PersistenceContexts.isTeam(member, teamId));
+        List<Team> loadedTeam = PersistenceContexts.managed(em, Team.class, team -> team.getId().equals(teamId));
+        if (memberHandling == MemberHandling.DELETE) {
+            deleteLockers(teamId);
+            favoriteRepository.unlinkAllOfTeam(teamId);
+        }
+        String jpql = switch (memberHandling) {
+            case UNASSIGN -> "update versioned Member m set m.team = null where m.team.id = :teamId";
+            case DELETE -> "delete from Member m where m.team.id = :teamId";
+        };
+        int affected = em.createQuery(jpql)
+            .setParameter("teamId", teamId)
+            .executeUpdate();
+        em.createQuery("delete from Team t where t.id = :teamId")
+            .setParameter("teamId", teamId)
+            .executeUpdate();
+        switch (memberHandling) {
+            case UNASSIGN -> loaded.forEach(em::refresh);
+            case DELETE -> loaded.forEach(em::detach);
+        }
+        loadedTeam.forEach(em::detach);
+        return affected;
+    }
+
+    /**
+     * 집계가 member 와 어긋난 팀을 고친다. (TeamAggregates.repair)
+     *
+     * @return 고친 팀 수
+     */
+    public int repairAggregates() {
+        return teamAggregates.repair(em);
+    }
+
+    // 사물함 id = 회원 id, 이미 로딩된 그 회원들의 사물함은 준영속으로
+    private void deleteLockers(String teamId) {
+        List<Locker> loaded = PersistenceContexts.managed(em, Locker.class, locker -> true);
+        if (!loaded.isEmpty()) {
+            Set<String> memberIds = new HashSet<>(em.createQuery(
+                    "select m.id from Member m where m.team.id = :teamId", String.class)
+                .setParameter("teamId", teamId)
+                .getResultList());
+            loaded.stream()
+                .filter(locker -> memberIds.contains(locker.getId()))
+                .forEach(em::detach);
+        }
+        em.createQuery("delete from Locker l where l.id in (select m.id from Member m where m.team.id = :teamId)")
+            .setParameter("teamId", teamId)
+            .executeUpdate();
+    }
+
+    private void refreshTeam(String teamId) {
+        PersistenceContexts.managed(em, Team.class, team -> team.getId().equals(teamId))
+            .forEach(em::refresh);
+    }
+}
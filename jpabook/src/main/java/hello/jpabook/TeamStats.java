@@ -0,0 +1,14 @@
+package hello.jpabook;
+
+/**
+ * 팀 대시보드 (Team 집계 컬럼 - team 한 row)
+ */
+public record TeamStats(String id, String name, long memberCount, Double averageAge, Integer minAge,
+                        Integer maxAge) {
+
+    // jpql new 명령어용
+    public TeamStats(String id, String name, long memberCount, long ageCount, long ageSum, Integer minAge,
+        Integer maxAge) {
+        this(id, name, memberCount, ageCount == 0 ? null : (double) ageSum / ageCount, minAge, maxAge);
+    }
+}
@@ -0,0 +1,54 @@
+package hello.jpabook;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * 스프링 트랜잭션(@Transactional) 시작 ~ 커밋/롤백 시간
+ * jpabook.transaction{readOnly, outcome=commit|rollback}
+ */
+public class TransactionMetrics implements TransactionExecutionListener {
+
+    private final MeterRegistry registry;
+    private final Map<TransactionExecution, Long> started = new ConcurrentHashMap<>();
+
+    public TransactionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure == null) {
+            started.put(transaction, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        record(transaction, commitFailure == null ? "commit" : "commit_failure");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, @Nullable Throwable rollbackFailure) {
+        record(transaction, "rollback");
+    }
+
+    private void record(TransactionExecution transaction, String outcome) {
+        Long start = started.remove(transaction);
+        if (start == null) {
+            return;
+        }
+        Timer.builder("jpabook.transaction")
+            .tag("readOnly", String.valueOf(transaction.isReadOnly()))
+            .tag("outcome", outcome)
+            .publishPercentiles(0.5, 0.99)
+            .register(registry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,27 @@
+package hello.jpabook;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * jpabook.write-behind.enabled=true 일 때만 MemberWriteBehind 를 등록한다.
+ */
+@Configuration
+@EnableConfigurationProperties(WriteBehindProperties.class)
+@ConditionalOnProperty(prefix = "jpabook.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public MemberWriteBehind memberWriteBehind(TransactionTemplate transactionTemplate, EntityManagerFactory emf,
+        WriteBehindProperties properties, MeterRegistry registry) {
+        return new MemberWriteBehind(transactionTemplate,
+            // 트랜잭션에 묶인 EntityManager (@PersistenceContext 와 같음)
+            SharedEntityManagerCreator.createSharedEntityManager(emf), properties, registry);
+    }
+}
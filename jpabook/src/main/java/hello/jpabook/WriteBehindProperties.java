@@ -0,0 +1,39 @@
+package hello.jpabook;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 회원 수정 write-behind 설정
+ * <pre>
+ * jpabook.write-behind.enabled=true
+ * jpabook.write-behind.capacity=10000
+ * </pre>
+ */
+@Getter
+@Setter
+@ConfigurationProperties("jpabook.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled = false;
+    // 쌓아 둘 수 있는 회원 수 (같은 회원의 수정은 하나로 합쳐진다)
+    private int capacity = 10_000;
+    private Duration flushInterval = Duration.ofMillis(100);
+    // 트랜잭션 하나에 반영할 회원 수
+    private int batchSize = 500;
+    // 반영에 실패한 수정을 다시 시도하는 횟수, 넘으면 버린다.
+    private int maxAttempts = 5;
+    // 재시도 간격 : retryBackoff * 2^(시도 - 1), 최대 maxRetryBackoff
+    private Duration retryBackoff = Duration.ofSeconds(1);
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+    private OverflowPolicy overflowPolicy = OverflowPolicy.CALLER_RUNS;
+
+    public enum OverflowPolicy {
+        // 가득 차면 호출한 스레드에서 트랜잭션으로 반영 (진행 중인 반영이 끝난 뒤)
+        CALLER_RUNS,
+        // 가득 차면 거절 (MemberWriteBehind.update 가 false)
+        REJECT
+    }
+}
@@ -0,0 +1,74 @@
+package hello.jpabook.web;
+
+import hello.jpabook.KeysetPage;
+import hello.jpabook.MemberQueryService;
+import hello.jpabook.MemberService;
+import hello.jpabook.MemberSort;
+import hello.jpabook.MemberView;
+import java.util.List;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/members")
+public class MemberController {
+
+    private final MemberService memberService;
+    private final MemberQueryService memberQueryService;
+
+    public MemberController(MemberService memberService, MemberQueryService memberQueryService) {
+        this.memberService = memberService;
+        this.memberQueryService = memberQueryService;
+    }
+
+    public record MemberForm(String id, String username, Integer age, String teamId) {
+    }
+
+    @GetMapping
+    public List<MemberView> list() {
+        return memberQueryService.findAll();
+    }
+
+    // GET /members?sort=AGE&size=50 -> 다음 페이지는 &page={next}
+    @GetMapping(params = "sort")
+    public KeysetPage<MemberView> page(@RequestParam MemberSort sort,
+        @RequestParam(name = "page", required = false) String token,
+        @RequestParam(defaultValue = "50") int size) {
+        return memberQueryService.findPage(sort, token, size);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<MemberView> get(@PathVariable String id) {
+        MemberView member = memberQueryService.findById(id);
+        return member == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(member);
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> join(@RequestBody MemberForm form) {
+        memberService.join(form.id(), form.username(), form.age(), form.teamId());
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> update(@PathVariable String id, @RequestBody MemberForm form) {
+        return memberService.update(id, form.username(), form.age())
+            ? ResponseEntity.noContent().build()
+            : ResponseEntity.notFound().build();
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id) {
+        return memberService.delete(id)
+            ? ResponseEntity.noContent().build()
+            : ResponseEntity.notFound().build();
+    }
+}
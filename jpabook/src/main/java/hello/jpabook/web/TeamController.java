@@ -0,0 +1,65 @@
+package hello.jpabook.web;
+
+import hello.jpabook.KeysetPage;
+import hello.jpabook.MemberQueryService;
+import hello.jpabook.MemberView;
+import hello.jpabook.TeamService;
+import hello.jpabook.TeamStats;
+import java.util.List;
+import java.util.Map;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/teams")
+public class TeamController {
+
+    private final TeamService teamService;
+    private final MemberQueryService memberQueryService;
+
+    public TeamController(TeamService teamService, MemberQueryService memberQueryService) {
+        this.teamService = teamService;
+        this.memberQueryService = memberQueryService;
+    }
+
+    public record TeamForm(String id, String name) {
+    }
+
+    public record TransferForm(String fromTeamId, List<String> memberIds) {
+    }
+
+    @PostMapping
+    public ResponseEntity<Void> create(@RequestBody TeamForm form) {
+        teamService.create(form.id(), form.name());
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
+    // 팀 통계 (회원 수, 나이 평균/최소/최대) - team 한 row
+    @GetMapping("/{teamId}")
+    public ResponseEntity<TeamStats> stats(@PathVariable String teamId) {
+        TeamStats stats = memberQueryService.findTeamStats(teamId);
+        return stats == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(stats);
+    }
+
+    // 팀 명단 (id 순 키셋 페이징) - 다음 페이지는 ?page={next}
+    @GetMapping("/{teamId}/members")
+    public KeysetPage<MemberView> roster(@PathVariable String teamId,
+        @RequestParam(name = "page", required = false) String token,
+        @RequestParam(defaultValue = "100") int size) {
+        return memberQueryService.findTeamPage(teamId, token, size);
+    }
+
+    // fromTeam -> teamId 로 회원 이동
+    @PostMapping("/{teamId}/transfers")
+    public Map<String, Integer> transfer(@PathVariable String teamId, @RequestBody TransferForm form) {
+        int moved = teamService.transferMembers(form.fromTeamId(), teamId, form.memberIds());
+        return Map.of("moved", moved);
+    }
+}
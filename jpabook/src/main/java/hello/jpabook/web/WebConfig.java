@@ -0,0 +1,24 @@
+package hello.jpabook.web;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WebConfig {
+
+    /**
+     * permits 기본값 : 커넥션 풀 크기의 2배 (풀 크기만큼 사용 중 + 그만큼 대기)
+     */
+    @Bean
+    public FilterRegistrationBean<ConnectionBackpressureFilter> connectionBackpressureFilter(
+        @Value("${jpabook.web.db-permits:20}") int permits,
+        @Value("${jpabook.web.db-acquire-timeout:1s}") Duration acquireTimeout) {
+        FilterRegistrationBean<ConnectionBackpressureFilter> registration =
+            new FilterRegistrationBean<>(new ConnectionBackpressureFilter(permits, acquireTimeout));
+        registration.addUrlPatterns("/members/*", "/members", "/teams/*", "/teams");
+        return registration;
+    }
+}
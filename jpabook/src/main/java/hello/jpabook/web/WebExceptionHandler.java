@@ -0,0 +1,39 @@
+package hello.jpabook.web;
+
+import hello.jpabook.InvalidMemberException;
+import hello.jpabook.InvalidPageTokenException;
+import java.util.Map;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class WebExceptionHandler {
+
+    // 잘못된 페이지 토큰, 페이지 크기 (그 밖의 IllegalArgumentException 은 서버 오류)
+    @ExceptionHandler(InvalidPageTokenException.class)
+    public ResponseEntity<Map<String, String>> invalidPage(InvalidPageTokenException e) {
+        return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+    }
+
+    // id 없음, 없는 팀
+    @ExceptionHandler(InvalidMemberException.class)
+    public ResponseEntity<Map<String, String>> invalidMember(InvalidMemberException e) {
+        return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+    }
+
+    // 이미 있는 id 등 제약 조건 위반 - sql 메시지는 내보내지 않는다.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, String>> dataConflict(DataIntegrityViolationException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "conflicts with existing data"));
+    }
+
+    // 같은 회원을 동시에 수정 (Member.version) - 다시 읽고 재시도
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> conflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "concurrent update"));
+    }
+}
@@ -0,0 +1,310 @@
+package hello.jpabook.aggregate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberQueryService;
+import hello.jpabook.MemberService;
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import hello.jpabook.Team;
+import hello.jpabook.TeamService;
+import hello.jpabook.TeamStats;
+import hello.jpabook.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.RollbackException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@SpringBootTest
+public class TeamAggregatesTest {
+
+    static final int THREADS = 8;
+    static final int JOINS_PER_THREAD = 25;
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberService memberService;
+    @Autowired
+    TeamService teamService;
+    @Autowired
+    MemberQueryService memberQueryService;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    SqlStatementMetrics sqlStatementMetrics;
+
+    @BeforeEach
+    void setup() {
+        teamService.create("team1", "팀1");
+        teamService.create("team2", "팀2");
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("가입, 팀 이동, 나이 변경, 탈퇴 - 커밋 때 팀 집계에 반영")
+    @Test
+    void incremental() {
+        memberService.join("member1", "회원1", 10, "team1");
+        memberService.join("member2", "회원2", 20, "team1");
+        memberService.join("member3", "회원3", 30, "team1");
+        memberService.join("member4", "회원4", null, "team1");
+        assertStats("team1", 4, 20.0, 10, 30);
+
+        // Member.setTeam : 나간 팀의 min 은 member 에서 다시 구한다.
+        teamService.transferMembers("team1", "team2", List.of("member1"));
+        assertStats("team1", 3, 25.0, 20, 30);
+        assertStats("team2", 1, 10.0, 10, 10);
+
+        memberService.update("member3", null, 40);
+        assertStats("team1", 3, 30.0, 20, 40);
+
+        memberService.delete("member2");
+        memberService.delete("member1");
+        assertStats("team1", 2, 40.0, 40, 40);
+        assertStats("team2", 0, null, null, null);
+    }
+
+    @DisplayName("한 트랜잭션의 여러 변경은 팀마다 update 한 번, 롤백하면 반영 안 함")
+    @Test
+    void oneUpdatePerTeam() {
+        SqlCapture capture = SqlCapture.capture(sqlStatementMetrics, () -> transactionTemplate.executeWithoutResult(
+            status -> {
+                for (int i = 1; i <= 10; i++) {
+                    memberService.join("member" + i, "회원" + i, i, i % 2 == 0 ? "team1" : "team2");
+                }
+            }));
+        capture.assertCount(Type.UPDATE, 2);
+        assertStats("team1", 5, 6.0, 2, 10);
+        assertStats("team2", 5, 5.0, 1, 9);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            memberService.join("member11", "회원11", 11, "team1");
+            status.setRollbackOnly();
+        });
+        assertStats("team1", 5, 6.0, 2, 10);
+    }
+
+    @DisplayName("동시 가입/탈퇴 - 증감을 데이터베이스가 더하므로 잃어버리지 않는다")
+    @Test
+    void concurrent() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < JOINS_PER_THREAD; i++) {
+                        String id = "member" + thread + "-" + i;
+                        memberService.join(id, "회원", i, "team1");
+                        // 짝수 번째는 곧바로 탈퇴
+                        if (i % 2 == 0) {
+                            memberService.delete(id);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        // 스레드마다 홀수 번째 12명 (1, 3, ..., 23) 평균 12 - 회원 수, 합계는 정확하다.
+        TeamStats stats = memberQueryService.findTeamStats("team1");
+        assertThat(stats.memberCount()).isEqualTo(THREADS * 12);
+        assertThat(stats.averageAge()).isEqualTo(12.0);
+        // min/max 는 탈퇴와 동시 가입이 겹치면 어긋날 수 있다 -> repair
+        teamService.repairAggregates();
+        assertStats("team1", THREADS * 12, 12.0, 1, 23);
+    }
+
+    @DisplayName("같은 회원을 동시에 이동 - 늦게 커밋하는 쪽은 실패하고 증감은 한 번만 반영")
+    @Test
+    void concurrentSameMemberTransfer() {
+        memberService.join("member1", "회원1", 10, "team1");
+        memberService.join("member2", "회원2", 20, "team1");
+
+        // 두 트랜잭션이 같은 스냅샷(team1)을 읽은 뒤 둘 다 이동
+        EntityManager em1 = emf.createEntityManager();
+        EntityManager em2 = emf.createEntityManager();
+        try {
+            EntityTransaction tx1 = em1.getTransaction();
+            EntityTransaction tx2 = em2.getTransaction();
+            tx1.begin();
+            tx2.begin();
+            em1.find(Member.class, "member1").setTeam(em1.getReference(Team.class, "team2"));
+            em2.find(Member.class, "member1").setTeam(em2.getReference(Team.class, "team2"));
+            tx1.commit();
+            assertThatThrownBy(tx2::commit)
+                .isInstanceOf(RollbackException.class)
+                .hasCauseInstanceOf(OptimisticLockException.class);
+        } finally {
+            em1.close();
+            em2.close();
+        }
+        assertStats("team1", 1, 20.0, 20, 20);
+        assertStats("team2", 1, 10.0, 10, 10);
+    }
+
+    @DisplayName("같은 회원을 여러 스레드에서 이동 - 한 번만 이동하고 집계는 repair 할 것이 없다")
+    @Test
+    void concurrentSameMemberTransferThreads() throws Exception {
+        memberService.join("member1", "회원1", 10, "team1");
+        memberService.join("member2", "회원2", 20, "team1");
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger moved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        moved.addAndGet(teamService.transferMembers("team1", "team2", List.of("member1")));
+                    } catch (ConcurrencyFailureException e) {
+                        // 낙관적 락 실패 (먼저 커밋한 쪽이 있다) 또는 row 락 대기 시간 초과
+                        conflicts.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        log.info("moved={}, conflicts={}", moved.get(), conflicts.get());
+        assertThat(moved.get()).isEqualTo(1);
+        assertStats("team1", 1, 20.0, 20, 20);
+        assertStats("team2", 1, 10.0, 10, 10);
+        assertThat(teamService.repairAggregates()).isZero();
+    }
+
+    @DisplayName("팀 이름 변경(엔티티 update)이 오래된 집계로 덮어쓰지 않는다")
+    @Test
+    void entityUpdateKeepsAggregates() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            Team team = em.find(Team.class, "team1");
+            assertThat(team.getMemberCount()).isZero();
+            // 다른 트랜잭션에서 가입 후 커밋
+            memberService.join("member1", "회원1", 10, "team1");
+            team.setName("새 이름");
+            tx.commit();
+        } finally {
+            em.close();
+        }
+        assertStats("team1", 1, 10.0, 10, 10);
+    }
+
+    @DisplayName("집계 update 는 바뀐 팀만 2차 캐시에서 지운다 (Team region 전체가 아니라)")
+    @Test
+    void evictsOnlyTouchedTeams() {
+        // 두 팀을 2차 캐시에 올린다.
+        findTeam("team1");
+        findTeam("team2");
+        assertThat(emf.getCache().contains(Team.class, "team2")).isTrue();
+
+        memberService.join("member1", "회원1", 10, "team1");
+
+        assertThat(emf.getCache().contains(Team.class, "team1")).isFalse();
+        assertThat(emf.getCache().contains(Team.class, "team2")).isTrue();
+        assertThat(findTeam("team1").getMemberCount()).isEqualTo(1);
+    }
+
+    @DisplayName("벌크 이동은 다시 구하고, 어긋난 집계는 repair 가 고친다")
+    @Test
+    void bulkAndRepair() {
+        memberService.join("member1", "회원1", 10, "team1");
+        memberService.join("member2", "회원2", 20, "team1");
+
+        teamService.reassignAllMembers("team1", "team2");
+        assertStats("team1", 0, null, null, null);
+        assertStats("team2", 2, 15.0, 10, 20);
+
+        memberService.addAge(0, 100, 5);
+        assertStats("team2", 2, 20.0, 15, 25);
+
+        // 이벤트 없이 바꾼 값 (다른 애플리케이션, 직접 sql)
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        em.createNativeQuery("update team set member_count = 99, max_age = null where id = 'team2'")
+            .executeUpdate();
+        tx.commit();
+        em.close();
+        assertThat(teamService.repairAggregates()).isEqualTo(1);
+        assertStats("team2", 2, 20.0, 15, 25);
+        assertThat(teamService.repairAggregates()).isZero();
+    }
+
+    @DisplayName("팀 통계 - select 한 번 (members, member 집계 없음)")
+    @Test
+    void singleRowRead() {
+        memberService.join("member1", "회원1", 10, "team1");
+
+        SqlCapture.capture(sqlStatementMetrics, () -> memberQueryService.findTeamStats("team1"))
+            .assertCount(Type.SELECT, 1)
+            .statements()
+            .forEach(sql -> assertThat(sql).doesNotContain("from member", "join"));
+    }
+
+    private Team findTeam(String teamId) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.find(Team.class, teamId);
+        } finally {
+            em.close();
+        }
+    }
+
+    private void assertStats(String teamId, long memberCount, Double averageAge, Integer minAge, Integer maxAge) {
+        TeamStats stats = memberQueryService.findTeamStats(teamId);
+        assertThat(stats.memberCount()).isEqualTo(memberCount);
+        assertThat(stats.averageAge()).isEqualTo(averageAge);
+        assertThat(stats.minAge()).isEqualTo(minAge);
+        assertThat(stats.maxAge()).isEqualTo(maxAge);
+    }
+}
@@ -0,0 +1,74 @@
+package hello.jpabook.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import hello.jpabook.MemberBulkLoader.TeamRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Slf4j
+@SpringBootTest
+public class MemberBulkLoaderTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Autowired
+    MemberBulkLoader loader;
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void load(Mode mode) {
+        Stream<TeamRow> teams = IntStream.rangeClosed(1, 3)
+            .mapToObj(i -> new TeamRow("team" + i, "팀" + i));
+        Stream<MemberRow> members = IntStream.rangeClosed(1, 2500)
+            .mapToObj(i -> new MemberRow("member" + i, "회원" + i, i % 100, "team" + (i % 3 + 1)));
+
+        long count = loader.load(teams, members, mode);
+        assertThat(count).isEqualTo(2503);
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            Long memberCount = em.createQuery("select count(m) from Member m join m.team t where t.name = :teamName",
+                    Long.class)
+                .setParameter("teamName", "팀1")
+                .getSingleResult();
+            // i % 3 == 0 -> team1
+            assertThat(memberCount).isEqualTo(833);
+            Member findMember = em.find(Member.class, "member3");
+            assertThat(findMember.getTeam().getId()).isEqualTo("team1");
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package hello.jpabook.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberRepository;
+import hello.jpabook.Team;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Slf4j
+@SpringBootTest
+public class QueryCacheTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        Team team = getTeam("team1", "팀1");
+        em.persist(team);
+        Member member1 = getMember("member1", "회원1", 10);
+        Member member2 = getMember("member2", "회원2", 20);
+        member1.setTeam(team);
+        member2.setTeam(team);
+        em.persist(member1);
+        em.persist(member2);
+        tx.commit();
+        em.close();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("같은 파라미터로 다시 조회 - 쿼리 캐시 + 2차 캐시, select 없음")
+    @Test
+    void hit() {
+        List<Member> first = memberRepository.findByTeamNameCached("팀1");
+        long statements = statistics.getPrepareStatementCount();
+        List<Member> second = memberRepository.findByTeamNameCached("팀1");
+
+        assertThat(first).hasSize(2);
+        assertThat(second).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        CacheRegionStatistics region = statistics.getQueryRegionStatistics(Member.FIND_BY_TEAM_NAME);
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("jpabook.query.cache.hit.ratio")
+            .tag("region", Member.FIND_BY_TEAM_NAME)
+            .gauge().value()).isEqualTo(0.5);
+    }
+
+    @DisplayName("Member 테이블에 쓰기 - 쿼리 캐시 무효화")
+    @Test
+    void invalidate() {
+        memberRepository.findByTeamNameCached("팀1");
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        Member member = getMember("member3", "회원3", 30);
+        member.setTeam(em.find(Team.class, "team1"));
+        em.persist(member);
+        tx.commit();
+        em.close();
+
+        List<Member> result = memberRepository.findByTeamNameCached("팀1");
+        assertThat(result).hasSize(3);
+        assertThat(statistics.getQueryRegionStatistics(Member.FIND_BY_TEAM_NAME).getHitCount()).isZero();
+    }
+
+    private Team getTeam(String id, String name) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        return team;
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
@@ -0,0 +1,131 @@
+package hello.jpabook.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Member;
+import hello.jpabook.Team;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Slf4j
+@SpringBootTest
+public class SecondLevelCacheTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        Team team = getTeam("team1", "팀1");
+        em.persist(team);
+        Member member = getMember("member1", "회원1", 10);
+        member.setTeam(team);
+        em.persist(member);
+        tx.commit();
+        em.close();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("다른 EntityManager 에서 조회 - 2차 캐시 히트, select 없음")
+    @Test
+    void find() {
+        EntityManager em1 = emf.createEntityManager();
+        Member member1 = em1.find(Member.class, "member1");
+        em1.close();
+
+        EntityManager em2 = emf.createEntityManager();
+        Member member2 = em2.find(Member.class, "member1");
+        em2.close();
+
+        // 1차 캐시가 다르므로 동일성은 보장하지 않는다.
+        assertThat(member2).isNotSameAs(member1);
+        assertThat(member2.getUsername()).isEqualTo("회원1");
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(Member.class.getName());
+        log.info("hit={}, miss={}, put={}", region.getHitCount(), region.getMissCount(), region.getPutCount());
+        // persist 후 commit 시점에 캐시에 저장 -> 두 번 모두 히트
+        assertThat(region.getHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @DisplayName("Team.members 컬렉션 캐시")
+    @Test
+    void collection() {
+        EntityManager em1 = emf.createEntityManager();
+        em1.find(Team.class, "team1").getMembers().size();
+        em1.close();
+
+        long statements = statistics.getPrepareStatementCount();
+        EntityManager em2 = emf.createEntityManager();
+        int size = em2.find(Team.class, "team1").getMembers().size();
+        em2.close();
+
+        assertThat(size).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getDomainDataRegionStatistics("hello.jpabook.Team.members").getHitCount())
+            .isEqualTo(1);
+    }
+
+    @DisplayName("Micrometer : hibernate.second.level.cache.requests")
+    @Test
+    void metrics() {
+        EntityManager em = emf.createEntityManager();
+        em.find(Member.class, "member1");
+        em.close();
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+            .tag("region", Member.class.getName())
+            .tag("result", "hit")
+            .functionCounter()).isNotNull();
+    }
+
+    private Team getTeam(String id, String name) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        return team;
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
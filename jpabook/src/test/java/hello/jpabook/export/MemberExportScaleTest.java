@@ -0,0 +1,75 @@
+package hello.jpabook.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import hello.jpabook.MemberBulkLoader.TeamRow;
+import hello.jpabook.MemberExporter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * ./gradlew scaleTest (-Xmx256m) : 200만 회원을 내보내도 heap 사용량이 늘지 않아야 한다.
+ * in-memory H2 는 데이터가 heap 에 올라가므로 file H2 사용
+ */
+@Slf4j
+@Tag("scale")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./build/scale/export;CACHE_SIZE=8192",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class MemberExportScaleTest {
+
+    static final int ROWS = 2_000_000;
+    static final int TEAMS = 100;
+    // GC 후 heap 증가 허용치 : 청크 하나(1000건) + fetch size 만큼의 행 + 여유
+    static final long MAX_LIVE_GROWTH = 32L << 20;
+    static final int SAMPLE_EVERY = 200_000;
+
+    @Autowired
+    MemberBulkLoader loader;
+    @Autowired
+    MemberExporter exporter;
+
+    @BeforeEach
+    void setup() {
+        loader.load(IntStream.range(0, TEAMS).mapToObj(i -> new TeamRow("team" + i, "팀" + i)),
+            IntStream.range(0, ROWS).mapToObj(
+                i -> new MemberRow("member" + i, "회원" + i, i % 100, "team" + (i % TEAMS))),
+            Mode.STATELESS_SESSION);
+    }
+
+    @Test
+    void exportMembersWithTeam() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = liveHeap(memory);
+        AtomicLong maxLive = new AtomicLong();
+        AtomicLong seen = new AtomicLong();
+        long count = exporter.exportMembersWithTeam(member -> {
+            if (seen.incrementAndGet() % SAMPLE_EVERY == 0) {
+                maxLive.accumulateAndGet(liveHeap(memory), Math::max);
+            }
+        });
+        log.info("exported={}, baseline={}MB, maxLive={}MB, maxHeap={}MB", count, baseline >> 20,
+            maxLive.get() >> 20, memory.getHeapMemoryUsage().getMax() >> 20);
+        assertThat(count).isEqualTo(ROWS);
+        // 1차 캐시가 clear 되지 않으면 10번의 측정 동안 계속 늘어난다.
+        assertThat(maxLive.get() - baseline).isLessThan(MAX_LIVE_GROWTH);
+    }
+
+    // GC 직후 사용 중인 heap (살아 있는 객체)
+    private long liveHeap(MemoryMXBean memory) {
+        memory.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
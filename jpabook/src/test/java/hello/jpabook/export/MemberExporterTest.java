@@ -0,0 +1,76 @@
+package hello.jpabook.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import hello.jpabook.MemberBulkLoader.TeamRow;
+import hello.jpabook.MemberExporter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Slf4j
+@SpringBootTest(properties = "jpabook.export.chunk-size=100")
+public class MemberExporterTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberBulkLoader loader;
+    @Autowired
+    MemberExporter exporter;
+
+    @BeforeEach
+    void setup() {
+        // member0 ~ member249 : 팀 있음, member250 ~ member299 : 팀 없음
+        loader.load(Stream.of(new TeamRow("team1", "팀1")),
+            IntStream.range(0, 300).mapToObj(
+                i -> new MemberRow("member" + i, "회원" + i, i % 100, i < 250 ? "team1" : null)),
+            Mode.STATELESS_SESSION);
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void exportMembers() {
+        List<String> ids = new ArrayList<>();
+        long count = exporter.exportMembers(member -> ids.add(member.getId()));
+        assertThat(count).isEqualTo(300);
+        assertThat(ids).hasSize(300).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void exportMembersWithTeam() {
+        List<String> teamNames = new ArrayList<>();
+        long count = exporter.exportMembersWithTeam(member -> teamNames.add(member.getTeam().getName()));
+        assertThat(count).isEqualTo(250);
+        assertThat(teamNames).containsOnly("팀1");
+    }
+}
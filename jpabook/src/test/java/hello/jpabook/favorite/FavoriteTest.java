@@ -0,0 +1,182 @@
+package hello.jpabook.favorite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.FavoriteRepository;
+import hello.jpabook.Member;
+import hello.jpabook.Product;
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import hello.jpabook.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.List;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@SpringBootTest
+public class FavoriteTest {
+
+    static final int PRODUCTS = 1500;
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    FavoriteRepository favoriteRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    SqlStatementMetrics sqlStatementMetrics;
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int i = 0; i < PRODUCTS; i++) {
+            em.persist(getProduct(productId(i), "상품" + i));
+        }
+        em.persist(getMember("member1", "회원1", 10));
+        tx.commit();
+        em.close();
+        emf.getCache().evictAll();
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createNativeQuery("delete from member_favorite").executeUpdate();
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Product p").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("Set 다대다 - 상품 하나 추가/삭제는 연결 행 하나만 insert/delete")
+    @Test
+    void singleRow() {
+        link(productIds(0, 50));
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            Member member = em.find(Member.class, "member1");
+            assertThat(member.getFavorites()).hasSize(50);
+
+            SqlCapture.capture(sqlStatementMetrics, () -> {
+                    member.addFavorite(em.getReference(Product.class, productId(50)));
+                    em.flush();
+                })
+                .assertCount(Type.INSERT, 1)
+                .assertCount(Type.DELETE, 0)
+                .assertCount(Type.UPDATE, 0);
+
+            Product removed = em.find(Product.class, productId(0));
+            SqlCapture.capture(sqlStatementMetrics, () -> {
+                    member.removeFavorite(removed);
+                    em.flush();
+                })
+                .assertCount(Type.DELETE, 1)
+                .assertCount(Type.INSERT, 0)
+                .assertCount(Type.UPDATE, 0);
+
+            // 이미 있는 상품 : Set 이므로 sql 없음
+            SqlCapture.capture(sqlStatementMetrics, () -> {
+                    member.addFavorite(em.getReference(Product.class, productId(50)));
+                    em.flush();
+                })
+                .assertCount(Type.INSERT, 0);
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+            throw e;
+        } finally {
+            em.close();
+        }
+        assertThat(favoriteIds()).hasSize(50).contains(productId(50)).doesNotContain(productId(0));
+    }
+
+    @DisplayName("대량 연결 - 컬렉션 로딩 없이 in 절 1000개 단위로 insert ... select 한 번씩")
+    @Test
+    void link() {
+        SqlCapture capture = SqlCapture.capture(sqlStatementMetrics,
+            () -> assertThat(link(productIds(0, PRODUCTS))).isEqualTo(PRODUCTS));
+
+        capture.assertCount(Type.INSERT, 2)
+            .assertCount(Type.SELECT, 0)
+            .assertCount(Type.DELETE, 0);
+        assertThat(favoriteIds()).hasSize(PRODUCTS);
+
+        // 이미 연결된 상품, 없는 상품은 건너뛴다.
+        List<String> again = productIds(PRODUCTS - 10, PRODUCTS + 10);
+        assertThat(link(again)).isZero();
+        assertThat(favoriteIds()).hasSize(PRODUCTS);
+    }
+
+    @DisplayName("대량 해제 - delete 한 번")
+    @Test
+    void unlink() {
+        link(productIds(0, 100));
+
+        SqlCapture.capture(sqlStatementMetrics, () -> assertThat(transactionTemplate.execute(
+                status -> favoriteRepository.unlink("member1", productIds(0, 60)))).isEqualTo(60))
+            .assertCount(Type.DELETE, 1)
+            .assertCount(Type.INSERT, 0);
+
+        assertThat(favoriteIds()).containsExactlyElementsOf(productIds(60, 100));
+
+        assertThat(transactionTemplate.execute(status -> favoriteRepository.unlinkAll("member1"))).isEqualTo(40);
+        assertThat(favoriteIds()).isEmpty();
+    }
+
+    private int link(List<String> productIds) {
+        return transactionTemplate.execute(status -> favoriteRepository.link("member1", productIds));
+    }
+
+    private List<String> favoriteIds() {
+        return transactionTemplate.execute(status -> favoriteRepository.findProductIds("member1"));
+    }
+
+    // 정렬 순서 = 번호 순서
+    private static String productId(int i) {
+        return "product%05d".formatted(i);
+    }
+
+    private static List<String> productIds(int from, int to) {
+        return IntStream.range(from, to).mapToObj(FavoriteTest::productId).toList();
+    }
+
+    private Product getProduct(String id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
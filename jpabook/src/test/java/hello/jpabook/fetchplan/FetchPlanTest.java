@@ -0,0 +1,103 @@
+package hello.jpabook.fetchplan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.FetchPlan;
+import hello.jpabook.Member;
+import hello.jpabook.MemberRepository;
+import hello.jpabook.Team;
+import hello.jpabook.TeamRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 팀 20개 x 회원 3명 조회 시 나가는 sql 수
+ * 지연 로딩만 쓰면 1 + 20, batch fetch size / fetch join / entity graph 로 1~2번
+ */
+@Slf4j
+@Transactional
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class FetchPlanTest {
+
+    static final int TEAM_COUNT = 20;
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    EntityManager em;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    MemberRepository memberRepository;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        for (int i = 1; i <= TEAM_COUNT; i++) {
+            Team team = getTeam("team" + i, "팀" + i);
+            em.persist(team);
+            for (int j = 1; j <= 3; j++) {
+                Member member = getMember("member" + i + "_" + j, "회원" + j, j * 10);
+                member.setTeam(team);
+                em.persist(member);
+            }
+        }
+        em.flush();
+        em.clear(); // select query 확인하기 위해서
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @CsvSource({"LAZY, 2", "BATCH, 2", "FETCH_JOIN, 1", "ENTITY_GRAPH, 1"})
+    void teamsWithMembers(FetchPlan plan, long expectedStatements) {
+        List<Team> teams = teamRepository.findAll(plan);
+        int memberCount = 0;
+        for (Team team : teams) {
+            for (Member member : team.getMembers()) {
+                log.info("team={}, member.username={}", team.getName(), member.getUsername());
+                memberCount++;
+            }
+        }
+        assertThat(teams).hasSize(TEAM_COUNT);
+        assertThat(memberCount).isEqualTo(TEAM_COUNT * 3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedStatements);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"BATCH, 2", "FETCH_JOIN, 1", "ENTITY_GRAPH, 1"})
+    void membersWithTeam(FetchPlan plan, long expectedStatements) {
+        List<Member> members = memberRepository.findByTeamIds(List.of("team1", "team2", "team3"), plan);
+        for (Member member : members) {
+            log.info("member.username={}, team={}", member.getUsername(), member.getTeam().getName());
+        }
+        assertThat(members).hasSize(9);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expectedStatements);
+    }
+
+    private Team getTeam(String id, String name) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        return team;
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
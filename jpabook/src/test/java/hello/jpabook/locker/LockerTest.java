@@ -0,0 +1,136 @@
+package hello.jpabook.locker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Locker;
+import hello.jpabook.LockerRepository;
+import hello.jpabook.Member;
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import hello.jpabook.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@SpringBootTest
+public class LockerTest {
+
+    static final int LOCKERS = 20;
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    LockerRepository lockerRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    SqlStatementMetrics sqlStatementMetrics;
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int i = 0; i < LOCKERS; i++) {
+            em.persist(getMember("member" + i, "회원" + i, i));
+        }
+        tx.commit();
+        em.close();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < LOCKERS; i++) {
+                lockerRepository.assign("member" + i, "사물함" + i);
+            }
+        });
+        // 2차 캐시에서 회원을 가져오면 select 수가 달라진다.
+        emf.getCache().evictAll();
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Locker l").executeUpdate();
+            em.createQuery("delete from Member m").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("공유 기본 키 - 사물함 id 는 회원 id")
+    @Test
+    void sharedKey() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Locker locker = lockerRepository.findByMemberId("member3");
+            assertThat(locker.getId()).isEqualTo("member3");
+            assertThat(locker.getName()).isEqualTo("사물함3");
+            assertThat(locker.getMember().getUsername()).isEqualTo("회원3");
+        });
+    }
+
+    @DisplayName("사물함 목록 - select 한 번, 회원은 지연 로딩")
+    @Test
+    void lazyMember() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Locker> lockers = new ArrayList<>();
+            SqlCapture.capture(sqlStatementMetrics, () -> lockers.addAll(lockerRepository.findAll()))
+                .assertCount(Type.SELECT, 1);
+
+            assertThat(lockers).hasSize(LOCKERS);
+            assertThat(lockers).allSatisfy(
+                locker -> assertThat(Hibernate.isInitialized(locker.getMember())).isFalse());
+
+            // 회원이 필요해지면 그때 로딩 (default_batch_fetch_size 로 한 번에)
+            SqlCapture.capture(sqlStatementMetrics, () -> lockers.forEach(l -> l.getMember().getUsername()))
+                .assertCount(Type.SELECT, 1)
+                .assertNoRepeatedSelects();
+        });
+    }
+
+    @DisplayName("사물함 + 회원 fetch join - select 한 번")
+    @Test
+    void fetchJoin() {
+        transactionTemplate.executeWithoutResult(status ->
+            SqlCapture.capture(sqlStatementMetrics, () -> lockerRepository.findAllWithMember()
+                    .forEach(locker -> locker.getMember().getUsername()))
+                .assertCount(Type.SELECT, 1));
+    }
+
+    @DisplayName("회원 -> 사물함 : 같은 id 로 기본 키 조회, 사물함 없으면 null")
+    @Test
+    void lockerOfMember() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member = em.find(Member.class, "member5");
+            assertThat(lockerRepository.findByMemberId(member.getId()).getName()).isEqualTo("사물함5");
+            assertThat(lockerRepository.findByMemberId("nobody")).isNull();
+        });
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
@@ -0,0 +1,122 @@
+package hello.jpabook.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Member;
+import hello.jpabook.QueryTimingStatistics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@SpringBootTest
+public class PersistenceMetricsTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void type() {
+        assertThat(Type.of("select m1_0.id from member m1_0")).isEqualTo(Type.SELECT);
+        assertThat(Type.of("/* insert hello.jpabook.Member */ insert into member values (?)")).isEqualTo(Type.INSERT);
+        assertThat(Type.of("  update member set age=?")).isEqualTo(Type.UPDATE);
+        assertThat(Type.of("delete from member")).isEqualTo(Type.DELETE);
+        assertThat(Type.of("call next value for seq")).isEqualTo(Type.OTHER);
+    }
+
+    @Test
+    void statementsAndQueries() {
+        double inserts = statements("insert");
+        String jpql = "select m from Member m where m.age > :age";
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        Member member = new Member();
+        member.setId("member1");
+        member.setUsername("회원1");
+        member.setAge(10);
+        em.persist(member);
+        em.createQuery(jpql, Member.class).setParameter("age", 1).getResultList();
+        tx.commit();
+        em.close();
+
+        assertThat(statements("insert")).isEqualTo(inserts + 1);
+        assertThat(meterRegistry.get("jpabook.query.execution").tag("query", jpql).timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("jpabook.query.rows").tag("query", jpql).summary().totalAmount())
+            .isEqualTo(1);
+    }
+
+    @DisplayName("query 태그 - named query 는 이름, 리터럴만 다른 쿼리는 하나로, 최대 개수를 넘으면 other")
+    @Test
+    void queryTags() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QueryTimingStatistics statistics =
+            new QueryTimingStatistics(emf.unwrap(SessionFactoryImplementor.class), registry, 3);
+
+        statistics.queryExecuted("select m from Member m where m.username = :username", 1, 1);
+        statistics.queryExecuted("select m from Member m where m.age > 10", 1, 1);
+        statistics.queryExecuted("select m from Member m\n where m.age > 20", 1, 1);
+        statistics.queryExecuted("select m from Member m where m.username = 'a'", 1, 1);
+        statistics.queryExecuted("select t from Team t", 1, 1);
+        statistics.queryExecuted("select t from Team t where t.name = 'b'", 1, 1);
+
+        assertThat(queryTimer(registry, Member.FIND_BY_USERNAME).count()).isEqualTo(1);
+        assertThat(queryTimer(registry, "select m from Member m where m.age > ?").count()).isEqualTo(2);
+        assertThat(queryTimer(registry, "select m from Member m where m.username = ?").count()).isEqualTo(1);
+        assertThat(queryTimer(registry, "other").count()).isEqualTo(2);
+        assertThat(registry.get("jpabook.query.execution").timers()).hasSize(4);
+        // 밀리초 단위라 백분위, 버킷 히스토그램은 없다.
+        assertThat(queryTimer(registry, "other").takeSnapshot().percentileValues()).isEmpty();
+        assertThat(queryTimer(registry, "other").takeSnapshot().histogramCounts()).isEmpty();
+    }
+
+    @Test
+    void transaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+        });
+        assertThat(meterRegistry.get("jpabook.transaction").tag("outcome", "commit").timer().count())
+            .isGreaterThanOrEqualTo(1);
+    }
+
+    private Timer queryTimer(MeterRegistry registry, String query) {
+        return registry.get("jpabook.query.execution").tag("query", query).timer();
+    }
+
+    private double statements(String type) {
+        return meterRegistry.get("jpabook.sql.statements").tag("type", type).counter().count();
+    }
+}
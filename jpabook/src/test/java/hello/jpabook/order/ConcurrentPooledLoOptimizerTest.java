@@ -0,0 +1,78 @@
+package hello.jpabook.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.ConcurrentPooledLoOptimizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentPooledLoOptimizerTest {
+
+    static final int INCREMENT = 50;
+
+    // 시퀀스 : 1, 51, 101 ... (increment by 50)
+    final AtomicLong sequence = new AtomicLong(1);
+    final AtomicInteger calls = new AtomicInteger();
+    final AccessCallback callback = new AccessCallback() {
+        @Override
+        public IntegralDataTypeHolder getNextValue() {
+            calls.incrementAndGet();
+            return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class)
+                .initialize(sequence.getAndAdd(INCREMENT));
+        }
+
+        @Override
+        public String getTenantIdentifier() {
+            return null;
+        }
+    };
+
+    @Test
+    void generate() {
+        ConcurrentPooledLoOptimizer optimizer = new ConcurrentPooledLoOptimizer(Long.class, INCREMENT);
+        for (long expected = 1; expected <= 120; expected++) {
+            assertThat(optimizer.generate(callback)).isEqualTo(expected);
+        }
+        // 1, 51, 101
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrent() throws Exception {
+        ConcurrentPooledLoOptimizer optimizer = new ConcurrentPooledLoOptimizer(Long.class, INCREMENT);
+        int threads = 8;
+        int perThread = 10_000;
+        Set<Object> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(optimizer.generate(callback));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // 중복 없음, 빈 번호 없음, 시퀀스 조회는 블록 수만큼
+        assertThat(ids).hasSize(threads * perThread);
+        assertThat(calls.get()).isEqualTo(threads * perThread / INCREMENT);
+    }
+}
@@ -0,0 +1,83 @@
+package hello.jpabook.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberProduct;
+import hello.jpabook.MemberProductId;
+import hello.jpabook.MemberProductRepository;
+import hello.jpabook.Product;
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import hello.jpabook.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+@SpringBootTest
+public class MemberProductRepositoryTest {
+
+    static final int PRODUCTS = 300;
+
+    @Autowired
+    EntityManager em;
+    @Autowired
+    SqlStatementMetrics sqlStatementMetrics;
+    @Autowired
+    MemberProductRepository memberProductRepository;
+
+    @BeforeEach
+    void setup() {
+        Member member1 = new Member();
+        member1.setId("member1");
+        member1.setUsername("회원1");
+        em.persist(member1);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setId("product" + i);
+            product.setName("상품" + i);
+            em.persist(product);
+
+            MemberProduct memberProduct = new MemberProduct();
+            memberProduct.setMember(member1);
+            memberProduct.setProduct(product);
+            memberProduct.setOrderAmount(i);
+            em.persist(memberProduct);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @DisplayName("300건 - 1차 캐시 확인 후 나머지는 100개씩 in 조회")
+    @Test
+    void findAll() {
+        // 1차 캐시에 미리 올려둔다.
+        MemberProduct cached = em.find(MemberProduct.class, new MemberProductId("member1", "product0"));
+
+        List<MemberProductId> ids = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            ids.add(new MemberProductId("member1", "product" + i));
+        }
+        ids.add(new MemberProductId("member1", "none"));
+
+        Map<MemberProductId, MemberProduct> result = new HashMap<>();
+        // 300 - 1(1차 캐시) + 1(없는 키) = 300 건 -> 100개씩 정확히 3번
+        SqlCapture.capture(sqlStatementMetrics, () -> result.putAll(memberProductRepository.findAll(ids)))
+            .assertCount(Type.SELECT, 3)
+            .assertCount(Type.INSERT, 0)
+            .assertCount(Type.UPDATE, 0);
+
+        assertThat(result).hasSize(PRODUCTS);
+        assertThat(result.get(new MemberProductId("member1", "product0"))).isSameAs(cached);
+        assertThat(result.get(new MemberProductId("member1", "product7")).getOrderAmount()).isEqualTo(7);
+    }
+}
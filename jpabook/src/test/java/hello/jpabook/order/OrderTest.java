@@ -0,0 +1,90 @@
+package hello.jpabook.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Member;
+import hello.jpabook.Order;
+import hello.jpabook.Product;
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import hello.jpabook.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Slf4j
+@SpringBootTest
+public class OrderTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    SqlStatementMetrics sqlStatementMetrics;
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Order o").executeUpdate();
+            em.createQuery("delete from Product p").executeUpdate();
+            em.createQuery("delete from Member m").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("persist 마다 시퀀스를 조회하지 않는다 (allocation size 50)")
+    @Test
+    void save() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            Member member1 = new Member();
+            member1.setId("member1");
+            member1.setUsername("회원1");
+            em.persist(member1);
+            Product productA = new Product();
+            productA.setId("productA");
+            productA.setName("상품A");
+            em.persist(productA);
+            em.flush();
+
+            List<Long> ids = new ArrayList<>();
+            // 시퀀스 조회는 블록을 새로 받을 때만, 새 블록의 첫 값은 바로 쓰인다.
+            // 앞 테스트가 남긴 블록이 있어도 없어도 100개 = 남은 블록(0~49개) + 새 블록 정확히 2개
+            SqlCapture.capture(sqlStatementMetrics, () -> {
+                for (int i = 0; i < 100; i++) {
+                    Order order = new Order();
+                    order.setMember(member1);
+                    order.setProduct(productA);
+                    order.setOrderAmount(i);
+                    em.persist(order);
+                    ids.add(order.getId());
+                }
+            }).assertCount(Type.SELECT, 2).assertCount(Type.INSERT, 0);
+            assertThat(ids).doesNotHaveDuplicates().doesNotContainNull();
+
+            // insert 100건은 flush 때 batch 한 번 (batch_size 100)
+            SqlCapture.capture(sqlStatementMetrics, tx::commit)
+                .assertCount(Type.INSERT, 1)
+                .assertCount(Type.SELECT, 0);
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package hello.jpabook.paging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.jpabook.InvalidPageTokenException;
+import hello.jpabook.KeysetPage;
+import hello.jpabook.Member;
+import hello.jpabook.MemberQueryService;
+import hello.jpabook.MemberRepository;
+import hello.jpabook.MemberSort;
+import hello.jpabook.MemberView;
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import hello.jpabook.Team;
+import hello.jpabook.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@SpringBootTest
+public class KeysetPagingTest {
+
+    static final int TEAMS = 3;
+    static final int MEMBERS_PER_TEAM = 25;
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberQueryService memberQueryService;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    SqlStatementMetrics sqlStatementMetrics;
+
+    // 기대 순서 계산용 (id, teamId, age)
+    record Row(String id, String teamId, Integer age) {
+    }
+
+    List<Row> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int t = 0; t < TEAMS; t++) {
+            Team team = getTeam("team" + t, "팀" + t);
+            em.persist(team);
+            for (int i = 0; i < MEMBERS_PER_TEAM; i++) {
+                // 나이가 겹치도록 - 같은 나이 안에서는 id 순
+                Member member = getMember("member" + t + "-" + i, "회원" + t + "-" + i, i % 7);
+                member.setTeam(team);
+                em.persist(member);
+                rows.add(new Row(member.getId(), team.getId(), member.getAge()));
+            }
+        }
+        // 팀 없는 회원 (TEAM 정렬에서 제외), 나이 없는 회원 (AGE 정렬에서 제외)
+        em.persist(getMember("solo", "혼자", 30));
+        rows.add(new Row("solo", null, 30));
+        em.persist(getMember("ageless", "나이없음", null));
+        rows.add(new Row("ageless", null, null));
+        tx.commit();
+        em.close();
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("(team, id) 순 - 엔티티, 페이지마다 select 한 번")
+    @Test
+    void byTeam() {
+        List<String> expected = rows.stream()
+            .filter(row -> row.teamId() != null)
+            .sorted(Comparator.comparing(Row::teamId).thenComparing(Row::id))
+            .map(Row::id)
+            .toList();
+
+        List<String> ids = walk(token -> transactionTemplate.execute(
+            status -> memberRepository.findPage(MemberSort.TEAM, token, 10)), Member::getId);
+
+        assertThat(ids).containsExactlyElementsOf(expected);
+        SqlCapture.capture(sqlStatementMetrics,
+                () -> transactionTemplate.execute(status -> memberRepository.findPage(MemberSort.TEAM, null, 10)))
+            .assertCount(Type.SELECT, 1);
+    }
+
+    @DisplayName("(age, id) 순 - MemberView")
+    @Test
+    void byAge() {
+        List<String> expected = rows.stream()
+            .filter(row -> row.age() != null)
+            .sorted(Comparator.comparing(Row::age).thenComparing(Row::id))
+            .map(Row::id)
+            .toList();
+
+        List<String> ids = walk(token -> memberQueryService.findPage(MemberSort.AGE, token, 10), MemberView::id);
+
+        assertThat(ids).containsExactlyElementsOf(expected);
+    }
+
+    @DisplayName("팀 명단 - 그 팀 회원만 id 순")
+    @Test
+    void teamRoster() {
+        List<String> expected = rows.stream()
+            .filter(row -> "team1".equals(row.teamId()))
+            .map(Row::id)
+            .sorted()
+            .toList();
+
+        List<String> ids = walk(token -> memberQueryService.findTeamPage("team1", token, 10), MemberView::id);
+
+        assertThat(ids).containsExactlyElementsOf(expected);
+    }
+
+    @DisplayName("마지막 페이지는 next 가 null, 크기가 딱 맞아도 빈 페이지를 만들지 않는다")
+    @Test
+    void lastPage() {
+        KeysetPage<MemberView> page = memberQueryService.findTeamPage("team0", null, MEMBERS_PER_TEAM);
+        assertThat(page.content()).hasSize(MEMBERS_PER_TEAM);
+        assertThat(page.next()).isNull();
+    }
+
+    @DisplayName("잘못된 토큰, 다른 정렬의 토큰, 다른 팀의 토큰, 잘못된 크기")
+    @Test
+    void invalid() {
+        String ageToken = memberQueryService.findPage(MemberSort.AGE, null, 5).next();
+        String rosterToken = memberQueryService.findTeamPage("team0", null, 5).next();
+
+        assertThatThrownBy(() -> memberQueryService.findPage(MemberSort.AGE, "not-a-token", 5))
+            .isInstanceOf(InvalidPageTokenException.class);
+        assertThatThrownBy(() -> memberQueryService.findPage(MemberSort.TEAM, ageToken, 5))
+            .isInstanceOf(InvalidPageTokenException.class);
+        assertThatThrownBy(() -> memberQueryService.findTeamPage("team1", rosterToken, 5))
+            .isInstanceOf(InvalidPageTokenException.class);
+        assertThatThrownBy(() -> memberQueryService.findPage(MemberSort.AGE, null, 0))
+            .isInstanceOf(InvalidPageTokenException.class);
+    }
+
+    private <T> List<String> walk(Function<String, KeysetPage<T>> fetch, Function<T, String> idOf) {
+        List<String> ids = new ArrayList<>();
+        String token = null;
+        int pages = 0;
+        do {
+            KeysetPage<T> page = fetch.apply(token);
+            assertThat(page.content()).hasSizeLessThanOrEqualTo(10);
+            page.content().stream().map(idOf).forEach(ids::add);
+            token = page.next();
+            pages++;
+        } while (token != null && pages < 100);
+        return ids;
+    }
+
+    private Team getTeam(String id, String name) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        return team;
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
@@ -0,0 +1,36 @@
+package hello.jpabook.persistcontext;
+
+import hello.jpabook.Member;
+import hello.jpabook.Team;
+import org.assertj.core.api.Assertions;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 바이트코드 향상(org.hibernate.orm gradle plugin) 확인
+ * 스냅샷과 필드를 비교하지 않고, 엔티티가 변경된 필드를 직접 기록한다.
+ */
+public class EnhancementTest {
+
+    @Test
+    void enhanced() {
+        Assertions.assertThat(new Member()).isInstanceOf(ManagedEntity.class);
+        Assertions.assertThat(new Team()).isInstanceOf(ManagedEntity.class);
+    }
+
+    @DisplayName("변경 감지 - 엔티티가 직접 추적")
+    @Test
+    void dirtyTracking() {
+        Member member = new Member();
+        member.setId("member1");
+        SelfDirtinessTracker tracker = (SelfDirtinessTracker) member;
+        tracker.$$_hibernate_clearDirtyAttributes();
+
+        member.setAge(20);
+
+        Assertions.assertThat(tracker.$$_hibernate_hasDirtyAttributes()).isTrue();
+        Assertions.assertThat(tracker.$$_hibernate_getDirtyAttributes()).containsExactly("age");
+    }
+}
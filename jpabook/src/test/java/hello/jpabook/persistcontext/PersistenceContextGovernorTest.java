@@ -0,0 +1,144 @@
+package hello.jpabook.persistcontext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Member;
+import hello.jpabook.PersistenceContextGovernor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceContext;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@SpringBootTest(properties = "jpabook.persistence-context.max-managed-entities=10")
+public class PersistenceContextGovernorTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    PersistenceContextGovernor governor;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    EntityManager sharedEm;
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("checkpoint - 10 개를 넘기 전에 flush + clear")
+    @Test
+    void checkpoint() {
+        double clears = meterRegistry.get("jpabook.persistence.context.clears").counter().count();
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        int max = 0;
+        for (int i = 0; i < 25; i++) {
+            governor.checkpoint(em);
+            em.persist(getMember("member" + i, "회원" + i, i));
+            max = Math.max(max, PersistenceContextGovernor.managedEntities(em));
+        }
+        tx.commit();
+        em.close();
+
+        assertThat(max).isEqualTo(10);
+        assertThat(meterRegistry.get("jpabook.persistence.context.clears").counter().count() - clears)
+            .isEqualTo(2);
+        assertThat(count()).isEqualTo(25);
+    }
+
+    @DisplayName("governed stream - 다음 원소를 꺼내기 전에 clear, 변경은 flush 로 반영")
+    @Test
+    void governed() {
+        persistMembers(25);
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        AtomicInteger max = new AtomicInteger();
+        try (Stream<Member> members = governor.governed(em,
+            em.createQuery("select m from Member m", Member.class).getResultStream())) {
+            members.forEach(member -> {
+                member.setAge(member.getAge() + 100);
+                max.accumulateAndGet(PersistenceContextGovernor.managedEntities(em), Math::max);
+            });
+        }
+        tx.commit();
+        em.close();
+
+        assertThat(max.get()).isLessThanOrEqualTo(10);
+        EntityManager check = emf.createEntityManager();
+        Long updated = check.createQuery("select count(m) from Member m where m.age >= 100", Long.class)
+            .getSingleResult();
+        check.close();
+        assertThat(updated).isEqualTo(25);
+    }
+
+    @DisplayName("트랜잭션마다 커밋 직전 관리 엔티티 수")
+    @Test
+    void metrics() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 5; i++) {
+                sharedEm.persist(getMember("member" + i, "회원" + i, i));
+            }
+        });
+        DistributionSummary summary = meterRegistry.get("jpabook.persistence.context.entities")
+            .tag("outcome", "commit")
+            .summary();
+        assertThat(summary.count()).isPositive();
+        assertThat(summary.max()).isGreaterThanOrEqualTo(5);
+    }
+
+    private void persistMembers(int count) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int i = 0; i < count; i++) {
+            em.persist(getMember("member" + i, "회원" + i, i));
+        }
+        tx.commit();
+        em.close();
+    }
+
+    private long count() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("select count(m) from Member m", Long.class).getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
@@ -0,0 +1,133 @@
+package hello.jpabook.persistcontext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.jpabook.Member;
+import hello.jpabook.PersistenceContextGovernor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Slf4j
+@SpringBootTest(properties = {
+    "jpabook.persistence-context.max-managed-entities=10",
+    "jpabook.persistence-context.strict=true"
+})
+public class StrictPersistenceContextGovernorTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    @BeforeEach
+    void setup() {
+        for (int start = 0; start < 20; start += 10) {
+            EntityManager em = emf.createEntityManager();
+            EntityTransaction tx = em.getTransaction();
+            tx.begin();
+            for (int i = start; i < start + 10; i++) {
+                em.persist(getMember("member" + i, "회원" + i, i));
+            }
+            tx.commit();
+            em.close();
+        }
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("strict - 로딩 중 10 개를 넘으면 실패")
+    @Test
+    void load() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            assertThatThrownBy(() -> em.createQuery("select m from Member m", Member.class).getResultList())
+                .hasStackTraceContaining("limit is 10");
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("strict - persist 로 10 개를 넘으면 실패")
+    @Test
+    void persist() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            for (int i = 0; i < 10; i++) {
+                em.persist(getMember("new" + i, "신규" + i, i));
+            }
+            assertThatThrownBy(() -> em.persist(getMember("new10", "신규10", 10)))
+                .hasStackTraceContaining("limit is 10");
+        } finally {
+            tx.rollback();
+            em.close();
+        }
+    }
+
+    @DisplayName("strict - persist, 로딩 모두 정확히 10 개까지 허용, 11 번째에서 실패")
+    @Test
+    void boundary() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            for (int i = 0; i < 10; i++) {
+                em.persist(getMember("new" + i, "신규" + i, i));
+            }
+            assertThat(PersistenceContextGovernor.managedEntities(em)).isEqualTo(10);
+            // 이미 관리 중인 엔티티를 다시 persist 해도 늘어나지 않는다.
+            em.persist(em.find(Member.class, "new0"));
+            assertThatThrownBy(() -> em.persist(getMember("new10", "신규10", 10)))
+                .hasStackTraceContaining("limit is 10");
+            // 추가되기 전에 막는다.
+            assertThat(PersistenceContextGovernor.managedEntities(em)).isEqualTo(10);
+        } finally {
+            tx.rollback();
+            em.close();
+        }
+
+        EntityManager reader = emf.createEntityManager();
+        try {
+            assertThat(reader.createQuery("select m from Member m order by m.id", Member.class)
+                .setMaxResults(10)
+                .getResultList()).hasSize(10);
+            reader.clear();
+            assertThatThrownBy(() -> reader.createQuery("select m from Member m order by m.id", Member.class)
+                .setMaxResults(11)
+                .getResultList())
+                .hasStackTraceContaining("limit is 10");
+        } finally {
+            reader.close();
+        }
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
@@ -0,0 +1,168 @@
+package hello.jpabook.queryplan;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import hello.jpabook.MemberBulkLoader.TeamRow;
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import hello.jpabook.support.SqlCapture;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.EntityType;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * 엔티티의 @NamedQuery 를 모두 실행해서 sql 을 얻고, H2 EXPLAIN 으로 테이블 풀 스캔(tableScan)이 있으면 실패
+ */
+@Slf4j
+@SpringBootTest
+public class NamedQueryPlanTest {
+
+    static final int TEAMS = 20;
+    static final int MEMBERS = 2_000;
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberBulkLoader loader;
+    @Autowired
+    SqlStatementMetrics sqlStatementMetrics;
+
+    @BeforeEach
+    void setup() {
+        loader.load(IntStream.range(0, TEAMS).mapToObj(i -> new TeamRow("team" + i, "팀" + i)),
+            IntStream.range(0, MEMBERS).mapToObj(
+                i -> new MemberRow("member" + i, "회원" + i, i % 100, "team" + (i % TEAMS))),
+            Mode.STATELESS_SESSION);
+        // 통계 갱신 - 옵티마이저가 행 수를 알게 한다.
+        explainWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("analyze");
+            }
+            return null;
+        });
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("named query 실행 계획에 테이블 풀 스캔 없음")
+    @Test
+    void namedQueries() {
+        Map<String, String> plans = new LinkedHashMap<>();
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            for (NamedQuery namedQuery : entity.getJavaType().getAnnotationsByType(NamedQuery.class)) {
+                plans.put(namedQuery.name(), explain(sqlOf(namedQuery.name())));
+            }
+        }
+        plans.forEach((name, plan) -> log.info("{} :\n{}", name, plan));
+
+        assertThat(plans).isNotEmpty();
+        assertThat(plans).allSatisfy((name, plan) ->
+            assertThat(plan).as("%s falls back to a table scan", name).doesNotContain(".tableScan"));
+    }
+
+    @DisplayName("검사 자체 확인 - 인덱스를 못 쓰는 조건은 tableScan")
+    @Test
+    void detectsTableScan() {
+        assertThat(explain("select * from member where lower(username) = ?")).contains(".tableScan");
+    }
+
+    // 파라미터는 타입에 맞는 아무 값, 쿼리 캐시는 끈다.
+    private String sqlOf(String name) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Query query = em.createNamedQuery(name).setHint(HibernateHints.HINT_CACHEABLE, false);
+            for (Parameter<?> parameter : query.getParameters()) {
+                query.setParameter(parameter.getName(), sample(parameter.getParameterType()));
+            }
+            SqlCapture capture = SqlCapture.capture(sqlStatementMetrics, query::getResultList);
+            assertThat(capture.count(Type.SELECT)).as(name).isEqualTo(1);
+            return capture.statements().get(0);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static Object sample(Class<?> type) {
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        return "x";
+    }
+
+    private String explain(String sql) {
+        return explainWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+                ParameterMetaData metaData = statement.getParameterMetaData();
+                for (int i = 1; i <= metaData.getParameterCount(); i++) {
+                    int type = metaData.getParameterType(i);
+                    statement.setObject(i, type == Types.INTEGER || type == Types.BIGINT ? 1 : "x");
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    private interface ConnectionWork<T> {
+
+        T execute(Connection connection) throws SQLException;
+    }
+
+    private <T> T explainWork(ConnectionWork<T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.unwrap(Session.class).doReturningWork(work::execute);
+        } finally {
+            em.close();
+        }
+    }
+}
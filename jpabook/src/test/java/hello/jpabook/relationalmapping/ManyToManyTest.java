@@ -9,8 +9,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 import lombok.Getter;
 import lombok.Setter;
 import org.junit.jupiter.api.Test;
@@ -75,13 +75,13 @@ public class ManyToManyTest {
             em.clear(); // select query 확인하기 위해서
 
             Member findMember = em.find(Member.class, "member1");
-            List<Product> products = findMember.getProducts();
+            Set<Product> products = findMember.getProducts();
             // 지연 로딩이 적용된다.
             products.forEach(product -> System.out.println("product = " + product.getName()));
 
             // inverse
 //            Product product = em.find(Product.class, "productA");
-//            List<Member> members = product.getMembers();
+//            Set<Member> members = product.getMembers();
 //            members.forEach(
 //                member -> System.out.println("member.getUsername() = " + member.getUsername()));
 
@@ -107,11 +107,13 @@ public class ManyToManyTest {
 
         private String username;
 
+        // List(bag) : 상품 하나만 추가/삭제해도 회원의 member_product 행 전부 delete 후 다시 insert
+        // Set : (member_id, product_id) 기본 키 -> 바뀐 행만 insert/delete
         @ManyToMany
         @JoinTable(name = "member_product",
             joinColumns = @JoinColumn(name = "member_id"),
             inverseJoinColumns = @JoinColumn(name = "product_id"))
-        private List<Product> products = new ArrayList<>();
+        private Set<Product> products = new HashSet<>();
 
         public Member() {}
 
@@ -134,7 +136,7 @@ public class ManyToManyTest {
         private String name;
 
         @ManyToMany(mappedBy = "products") // 양방향
-        private List<Member> members = new ArrayList<>();
+        private Set<Member> members = new HashSet<>();
 
         public Product() {}
     }
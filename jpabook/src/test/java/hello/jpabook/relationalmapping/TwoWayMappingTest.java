@@ -1,13 +1,20 @@
 package hello.jpabook.relationalmapping;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import hello.jpabook.Member;
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
 import hello.jpabook.Team;
+import hello.jpabook.support.SqlCapture;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
 import jakarta.persistence.Query;
 import java.util.List;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,6 +27,8 @@ public class TwoWayMappingTest {
 
     @Autowired
     EntityManagerFactory emf;
+    @Autowired
+    SqlStatementMetrics sqlStatementMetrics;
 
     @AfterEach
     void close() {
@@ -61,7 +70,7 @@ public class TwoWayMappingTest {
             em.persist(member2);
 //            em.flush();
             Team findTeam = em.find(Team.class, "team1");
-            List<Member> members = findTeam.getMembers();
+            Set<Member> members = findTeam.getMembers();
             for (Member member : members) {
                 log.info("member.getUsername = {} ", member.getUsername());
             }
@@ -74,6 +83,90 @@ public class TwoWayMappingTest {
         }
     }
 
+    @DisplayName("양방향 연관관계 - 팀 목록 + members 지연 로딩, @BatchSize 로 N+1 없음")
+    @Test
+    void searchWithoutNPlusOne() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int t = 1; t <= 3; t++) {
+            Team team = getTeam("team" + t, "팀" + t);
+            em.persist(team);
+            for (int m = 1; m <= 2; m++) {
+                Member member = getMember("member" + t + m, "회원" + t + m, 10 * m);
+                member.setTeam(team);
+                em.persist(member);
+            }
+        }
+        tx.commit();
+        em.close();
+        // 2차 캐시에서 가져오면 select 수가 달라진다.
+        emf.getCache().evictAll();
+
+        EntityManager em2 = emf.createEntityManager();
+        try {
+            SqlCapture.capture(sqlStatementMetrics, () -> {
+                    List<Team> teams = em2.createQuery("select t from Team t", Team.class).getResultList();
+                    for (Team team : teams) {
+                        assertThat(team.getMembers()).hasSize(2);
+                    }
+                })
+                .assertCount(Type.SELECT, 2)
+                .assertNoRepeatedSelects();
+        } finally {
+            em2.close();
+        }
+    }
+
+    @DisplayName("양방향 연관관계 - 팀 이동(편의 메서드), 초기화되지 않은 컬렉션은 건드리지 않는다")
+    @Test
+    void move() {
+        Team team1 = getTeam("team1", "팀1");
+        Team team2 = getTeam("team2", "팀2");
+        Member member1 = getMember("member1", "회원1", 10);
+        Member member2 = getMember("member2", "회원2", 20);
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.persist(team1);
+            em.persist(team2);
+            member1.setTeam(team1);
+            member2.setTeam(team1);
+            em.persist(member1);
+            em.persist(member2);
+            em.flush();
+            em.clear();
+
+            // 로딩된 컬렉션 : 양쪽 다 반영
+            Team findTeam1 = em.find(Team.class, "team1");
+            Team findTeam2 = em.find(Team.class, "team2");
+            findTeam1.getMembers().size();
+            findTeam2.getMembers().size();
+            Member findMember1 = em.find(Member.class, "member1");
+            findMember1.setTeam(findTeam2);
+            assertThat(findTeam1.getMembers()).extracting(Member::getId).containsExactly("member2");
+            assertThat(findTeam2.getMembers()).containsExactly(findMember1);
+            em.flush();
+            em.clear();
+
+            // 프록시 : 팀도 컬렉션도 초기화하지 않는다.
+            Member findMember2 = em.find(Member.class, "member2");
+            Team oldTeam = findMember2.getTeam();
+            Team newTeam = em.getReference(Team.class, "team2");
+            findMember2.setTeam(newTeam);
+            assertThat(Hibernate.isInitialized(oldTeam)).isFalse();
+            assertThat(Hibernate.isInitialized(newTeam)).isFalse();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
     private Team getTeam(String id, String name) {
         Team team = new Team();
         team.setId(id);
@@ -0,0 +1,148 @@
+package hello.jpabook.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Member;
+import hello.jpabook.ReplicaDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * H2 두 개 (primarydb, replicadb) - 복제는 없으므로 어느 DB 로 갔는지는 database() 로 확인한다.
+ * 복제 지연은 replicadb 의 replica_status.lag_ms 로 흉내 낸다.
+ */
+@Slf4j
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:primarydb;DB_CLOSE_DELAY=-1",
+    "jpabook.replica.enabled=true",
+    "jpabook.replica.nodes[0].url=" + ReplicaRoutingTest.REPLICA_URL,
+    "jpabook.replica.nodes[0].username=sa",
+    "jpabook.replica.lag-query=select lag_ms from replica_status",
+    "jpabook.replica.max-lag=1s",
+    "jpabook.replica.check-interval=1h"
+})
+public class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    ReplicaDataSource replicaDataSource;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    EntityManagerFactory emf;
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        replica("create table replica_status(lag_ms bigint)", "insert into replica_status values (0)");
+        replicaDataSource.checkReplicas();
+    }
+
+    @AfterEach
+    void close() throws SQLException {
+        replica("drop table if exists replica_status");
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+            status -> em.createQuery("delete from Member m").executeUpdate());
+    }
+
+    @DisplayName("readOnly 트랜잭션은 복제본, 나머지는 primary")
+    @Test
+    void route() {
+        assertThat(database(true)).isEqualTo("REPLICADB");
+        assertThat(database(false)).isEqualTo("PRIMARYDB");
+    }
+
+    @DisplayName("복제 지연이 max-lag 초과 - primary 로 fallback")
+    @Test
+    void lag() throws SQLException {
+        double fallbacks = fallbacks();
+        replica("update replica_status set lag_ms = 5000");
+        replicaDataSource.checkReplicas();
+
+        assertThat(replicaDataSource.healthyCount()).isZero();
+        assertThat(database(true)).isEqualTo("PRIMARYDB");
+        assertThat(fallbacks() - fallbacks).isEqualTo(1);
+
+        replica("update replica_status set lag_ms = 10");
+        replicaDataSource.checkReplicas();
+        assertThat(database(true)).isEqualTo("REPLICADB");
+    }
+
+    @DisplayName("복제본 확인 실패 - primary 로 fallback")
+    @Test
+    void unavailable() throws SQLException {
+        replica("drop table replica_status");
+        replicaDataSource.checkReplicas();
+
+        assertThat(database(true)).isEqualTo("PRIMARYDB");
+    }
+
+    @DisplayName("readOnly 트랜잭션은 2차 캐시를 읽기만 한다 - 복제본에서 읽은 값이 캐시에 남지 않는다")
+    @Test
+    void readOnlyDoesNotPopulateCache() throws SQLException {
+        // 복제본에는 member 테이블이 없으므로 지연으로 primary 에서 읽는다. (readOnly 트랜잭션인 것은 같다)
+        replica("update replica_status set lag_ms = 5000");
+        replicaDataSource.checkReplicas();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Member member = new Member();
+            member.setId("member1");
+            member.setUsername("회원1");
+            em.persist(member);
+        });
+        emf.getCache().evictAll();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            assertThat(em.unwrap(Session.class).getCacheMode()).isEqualTo(CacheMode.GET);
+            assertThat(em.find(Member.class, "member1")).isNotNull();
+        });
+        assertThat(emf.getCache().contains(Member.class, "member1")).isFalse();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertThat(em.unwrap(Session.class).getCacheMode()).isEqualTo(CacheMode.NORMAL);
+            em.find(Member.class, "member1");
+        });
+        assertThat(emf.getCache().contains(Member.class, "member1")).isTrue();
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> (String) em.createNativeQuery("select database()").getSingleResult());
+    }
+
+    private double fallbacks() {
+        return meterRegistry.get("jpabook.replica.fallbacks").counter().count();
+    }
+
+    private static void replica(String... sqls) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
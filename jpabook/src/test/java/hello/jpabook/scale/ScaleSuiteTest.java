@@ -0,0 +1,151 @@
+package hello.jpabook.scale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.KeysetPage;
+import hello.jpabook.Member;
+import hello.jpabook.MemberExporter;
+import hello.jpabook.MemberQueryService;
+import hello.jpabook.MemberView;
+import hello.jpabook.Order;
+import hello.jpabook.Product;
+import hello.jpabook.TeamService;
+import hello.jpabook.support.Latency;
+import hello.jpabook.support.SyntheticDataGenerator;
+import hello.jpabook.support.SyntheticDataGenerator.Counts;
+import hello.jpabook.support.SyntheticDataGenerator.Spec;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+/**
+ * ./gradlew scaleTest : 운영 규모 데이터(회원 200만, Zipf 팀 크기)에서 지연 시간 기록
+ * <p>
+ * 데이터는 한 번만 적재한다. (seed 고정 -> 매번 같은 데이터)
+ * 결과는 로그 (Latency : p50/p99/max) - 실행 환경마다 달라서 시간으로 실패시키지 않는다.
+ */
+@Slf4j
+@Tag("scale")
+@TestInstance(Lifecycle.PER_CLASS)
+@Import(SyntheticDataGenerator.class)
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./build/scale/suite;CACHE_SIZE=65536",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class ScaleSuiteTest {
+
+    static final Spec SPEC = Spec.of(42, 2_000_000);
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    SyntheticDataGenerator generator;
+    @Autowired
+    MemberQueryService memberQueryService;
+    @Autowired
+    TeamService teamService;
+    @Autowired
+    MemberExporter exporter;
+
+    @BeforeAll
+    void load() {
+        long start = System.nanoTime();
+        Counts counts = generator.load(SPEC);
+        log.info("loaded {} in {}s", counts, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    @DisplayName("팀 명단 - 가장 큰 팀(team0)과 작은 팀, 페이지 100 개씩")
+    @Test
+    void rosterReads() {
+        String smallestTeam = smallestTeam();
+        Latency largest = new Latency("roster page team0");
+        Latency smallest = new Latency("roster page " + smallestTeam);
+        // team0 은 뒤 페이지로 갈수록 offset 페이징이면 느려진다. 키셋은 페이지마다 같아야 한다.
+        String token = null;
+        for (int i = 0; i < 200; i++) {
+            long start = System.nanoTime();
+            KeysetPage<MemberView> page = memberQueryService.findTeamPage("team0", token, 100);
+            largest.add(System.nanoTime() - start);
+            assertThat(page.content()).hasSize(100);
+            token = page.next();
+        }
+        for (int i = 0; i < 200; i++) {
+            smallest.record(() -> memberQueryService.findTeamPage(smallestTeam, null, 100));
+        }
+        log.info("{}", largest);
+        log.info("{}", smallest);
+    }
+
+    @DisplayName("회원 이동 - team0 -> team1 1000 명씩")
+    @Test
+    void transfers() {
+        Latency latency = new Latency("transfer 1000");
+        for (int i = 0; i < 20; i++) {
+            List<String> ids = memberQueryService.findTeamPage("team0", null, 1000).content().stream()
+                .map(MemberView::id)
+                .toList();
+            latency.record(() -> teamService.transferMembers("team0", "team1", ids));
+        }
+        log.info("{}", latency);
+    }
+
+    @DisplayName("주문 insert - 트랜잭션당 1000 건 (pooled-lo 식별자 + JDBC batch)")
+    @Test
+    void orderInserts() {
+        Latency latency = new Latency("insert 1000 orders");
+        for (int batch = 0; batch < 50; batch++) {
+            int offset = batch * 1000;
+            latency.record(() -> {
+                EntityManager em = emf.createEntityManager();
+                EntityTransaction tx = em.getTransaction();
+                tx.begin();
+                for (int i = 0; i < 1000; i++) {
+                    Order order = new Order();
+                    order.setMember(em.getReference(Member.class, SyntheticDataGenerator.memberId(offset + i)));
+                    order.setProduct(
+                        em.getReference(Product.class, SyntheticDataGenerator.productId(i % SPEC.products())));
+                    order.setOrderAmount(1);
+                    em.persist(order);
+                }
+                tx.commit();
+                em.close();
+            });
+        }
+        log.info("{}", latency);
+    }
+
+    @DisplayName("회원 전체 내보내기 (팀 fetch join)")
+    @Test
+    void export() {
+        Latency latency = new Latency("export members with team");
+        long[] count = new long[1];
+        latency.record(() -> count[0] = exporter.exportMembersWithTeam(member -> {
+        }));
+        log.info("{} rows, {}", count[0], latency);
+        assertThat(count[0]).isPositive();
+    }
+
+    // 회원이 있는 팀 중 가장 작은 팀
+    private String smallestTeam() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.createQuery("select m.team.id from Member m where m.team is not null"
+                    + " group by m.team.id order by count(m), m.team.id", String.class)
+                .setMaxResults(1)
+                .getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package hello.jpabook.scale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberProductId;
+import hello.jpabook.support.SyntheticDataGenerator;
+import hello.jpabook.support.SyntheticDataGenerator.Counts;
+import hello.jpabook.support.SyntheticDataGenerator.Spec;
+import hello.jpabook.support.ZipfDistribution;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+@Slf4j
+@Import(SyntheticDataGenerator.class)
+@SpringBootTest
+public class SyntheticDataGeneratorTest {
+
+    static final Spec SPEC = new Spec(42, 50, 20_000, 200, 5_000, 3_000, 1.1);
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    SyntheticDataGenerator generator;
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from MemberProduct mp").executeUpdate();
+            em.createQuery("delete from Order o").executeUpdate();
+            em.createQuery("delete from Product p").executeUpdate();
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("같은 seed -> 같은 데이터, 다른 seed -> 다른 데이터")
+    @Test
+    void deterministic() {
+        List<MemberRow> first = SyntheticDataGenerator.members(SPEC).toList();
+        List<MemberRow> second = SyntheticDataGenerator.members(SPEC).toList();
+        Spec other = new Spec(7, 50, 20_000, 200, 5_000, 3_000, 1.1);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(SyntheticDataGenerator.members(other).toList()).isNotEqualTo(first);
+        assertThat(SyntheticDataGenerator.orders(SPEC).map(o -> o.getMember().getId()).toList())
+            .isEqualTo(SyntheticDataGenerator.orders(SPEC).map(o -> o.getMember().getId()).toList());
+    }
+
+    @DisplayName("팀 크기 Zipf - team0 이 가장 크고 중간 팀보다 훨씬 크다")
+    @Test
+    void skewedTeams() {
+        Map<String, Long> sizes = SyntheticDataGenerator.members(SPEC)
+            .map(MemberRow::teamId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        List<Long> sorted = sizes.values().stream().sorted().toList();
+        long median = sorted.get(sorted.size() / 2);
+        log.info("team0={}, median={}, smallest={}", sizes.get("team0"), median, sorted.get(0));
+
+        assertThat(sizes.get("team0")).isEqualTo(sorted.get(sorted.size() - 1));
+        assertThat(sizes.get("team0")).isGreaterThan(median * 10);
+    }
+
+    @DisplayName("Zipf 표본은 1..n")
+    @Test
+    void zipfRange() {
+        ZipfDistribution zipf = new ZipfDistribution(10, 1.2);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[11];
+        for (int i = 0; i < 100_000; i++) {
+            counts[zipf.sample(random)]++;
+        }
+        assertThat(counts[0]).isZero();
+        assertThat(counts[1]).isGreaterThan(counts[2]);
+        assertThat(counts[2]).isGreaterThan(counts[10]);
+        assertThat(counts[10]).isPositive();
+    }
+
+    @DisplayName("회원-상품 쌍은 겹치지 않는다")
+    @Test
+    void uniqueMemberProducts() {
+        Set<MemberProductId> ids = new HashSet<>();
+        SyntheticDataGenerator.memberProducts(SPEC).forEach(mp -> assertThat(ids.add(mp.getId())).isTrue());
+        assertThat(ids).hasSize(SPEC.memberProducts());
+    }
+
+    @DisplayName("적재 - 엔티티별 건수")
+    @Test
+    void load() {
+        Counts counts = generator.load(SPEC);
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            assertThat(count(em, "Team")).isEqualTo(counts.teams()).isEqualTo(SPEC.teams());
+            assertThat(count(em, "Member")).isEqualTo(SPEC.members());
+            assertThat(count(em, "Product")).isEqualTo(SPEC.products());
+            assertThat(count(em, "Order")).isEqualTo(SPEC.orders());
+            assertThat(count(em, "MemberProduct")).isEqualTo(SPEC.memberProducts());
+        } finally {
+            em.close();
+        }
+    }
+
+    private long count(EntityManager em, String entity) {
+        return em.createQuery("select count(e) from " + entity + " e", Long.class).getSingleResult();
+    }
+}
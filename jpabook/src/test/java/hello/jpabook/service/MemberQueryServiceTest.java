@@ -0,0 +1,99 @@
+package hello.jpabook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberQueryService;
+import hello.jpabook.MemberView;
+import hello.jpabook.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Slf4j
+@SpringBootTest
+public class MemberQueryServiceTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberQueryService memberQueryService;
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        Team team1 = getTeam("team1", "팀1");
+        em.persist(team1);
+        Member member1 = getMember("member1", "회원1", 10);
+        Member member2 = getMember("member2", "회원2", 20);
+        member1.setTeam(team1);
+        em.persist(member1);
+        em.persist(member2);
+        tx.commit();
+        em.close();
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("DTO 조회 - 엔티티를 로딩하지 않는다")
+    @Test
+    void findAll() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<MemberView> result = memberQueryService.findAll();
+
+        assertThat(result).containsExactly(
+            new MemberView("member1", "회원1", 10, "팀1"),
+            new MemberView("member2", "회원2", 20, null));
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findByTeamName() {
+        assertThat(memberQueryService.findByTeamName("팀1"))
+            .containsExactly(new MemberView("member1", "회원1", 10, "팀1"));
+    }
+
+    private Team getTeam(String id, String name) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        return team;
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
@@ -0,0 +1,106 @@
+package hello.jpabook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Locker;
+import hello.jpabook.LockerRepository;
+import hello.jpabook.Member;
+import hello.jpabook.MemberService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@SpringBootTest
+public class MemberServiceTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberService memberService;
+    @Autowired
+    LockerRepository lockerRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int i = 1; i <= 5; i++) {
+            em.persist(getMember("member" + i, "회원" + i, i * 10));
+        }
+        tx.commit();
+        em.close();
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Locker l").executeUpdate();
+            em.createQuery("delete from Member m").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("벌크 update - 나이 20 ~ 40 회원 +1, 로딩된 회원도 반영")
+    @Test
+    void addAge() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member2 = em.find(Member.class, "member2");
+            Member member5 = em.find(Member.class, "member5");
+            // flush 전 변경도 반영된 뒤 벌크 연산이 나간다.
+            member5.setAge(30);
+
+            int updated = memberService.addAge(20, 40, 1);
+
+            assertThat(updated).isEqualTo(4);
+            assertThat(member2.getAge()).isEqualTo(21);
+            assertThat(member5.getAge()).isEqualTo(31);
+        });
+    }
+
+    @DisplayName("탈퇴 - 사물함이 있는 회원은 사물함도 삭제")
+    @Test
+    void deleteWithLocker() {
+        transactionTemplate.executeWithoutResult(status -> lockerRepository.assign("member1", "사물함1"));
+
+        assertThat(memberService.delete("member1")).isTrue();
+
+        EntityManager em = emf.createEntityManager();
+        try {
+            assertThat(em.find(Member.class, "member1")).isNull();
+            assertThat(em.find(Locker.class, "member1")).isNull();
+        } finally {
+            em.close();
+        }
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
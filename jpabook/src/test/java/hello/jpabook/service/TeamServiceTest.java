@@ -0,0 +1,231 @@
+package hello.jpabook.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.FavoriteRepository;
+import hello.jpabook.Locker;
+import hello.jpabook.LockerRepository;
+import hello.jpabook.Member;
+import hello.jpabook.Product;
+import hello.jpabook.Team;
+import hello.jpabook.TeamService;
+import hello.jpabook.TeamService.MemberHandling;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@SpringBootTest
+public class TeamServiceTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    TeamService teamService;
+    @Autowired
+    LockerRepository lockerRepository;
+    @Autowired
+    FavoriteRepository favoriteRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    // 트랜잭션 범위 영속성 컨텍스트 (서비스와 공유)
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        Team team1 = getTeam("team1", "팀1");
+        Team team2 = getTeam("team2", "팀2");
+        em.persist(team1);
+        em.persist(team2);
+        for (int i = 1; i <= 5; i++) {
+            Member member = getMember("member" + i, "회원" + i, i * 10);
+            member.setTeam(team1);
+            em.persist(member);
+        }
+        tx.commit();
+        em.close();
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Locker l").executeUpdate();
+            em.createNativeQuery("delete from member_favorite").executeUpdate();
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            em.createQuery("delete from Product p").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void transferMembers() {
+        // member9 : 없는 회원 -> 무시
+        int moved = teamService.transferMembers("team1", "team2", List.of("member1", "member2", "member9"));
+        assertThat(moved).isEqualTo(2);
+
+        assertThat(teamIdOf("member1")).isEqualTo("team2");
+        assertThat(teamIdOf("member2")).isEqualTo("team2");
+        assertThat(teamIdOf("member3")).isEqualTo("team1");
+    }
+
+    @DisplayName("회원 이동 - 2차 캐시에 올라간 두 팀의 members 도 반영")
+    @Test
+    void transferMembersEvictsCachedRosters() {
+        // 두 팀의 members 를 2차 캐시에 올린다.
+        assertThat(rosterOf("team1")).hasSize(5);
+        assertThat(rosterOf("team2")).isEmpty();
+
+        teamService.transferMembers("team1", "team2", List.of("member1", "member2"));
+
+        assertThat(rosterOf("team1")).containsExactlyInAnyOrder("member3", "member4", "member5");
+        assertThat(rosterOf("team2")).containsExactlyInAnyOrder("member1", "member2");
+    }
+
+    @DisplayName("벌크 update - 이미 로딩된 회원, 팀 members 도 반영")
+    @Test
+    void reassignAllMembers() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member1 = em.find(Member.class, "member1");
+            Team team1 = em.find(Team.class, "team1");
+            Team team2 = em.find(Team.class, "team2");
+            assertThat(team1.getMembers()).hasSize(5);
+
+            int moved = teamService.reassignAllMembers("team1", "team2");
+
+            assertThat(moved).isEqualTo(5);
+            assertThat(member1.getTeam().getId()).isEqualTo("team2");
+            assertThat(team1.getMembers()).isEmpty();
+            assertThat(team2.getMembers()).hasSize(5);
+        });
+        assertThat(teamIdOf("member5")).isEqualTo("team2");
+    }
+
+    @DisplayName("팀 삭제 - 회원은 팀 없음으로")
+    @Test
+    void deleteTeamUnassign() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member1 = em.find(Member.class, "member1");
+            int affected = teamService.deleteTeam("team1", MemberHandling.UNASSIGN);
+            assertThat(affected).isEqualTo(5);
+            assertThat(member1.getTeam()).isNull();
+        });
+        assertThat(teamIdOf("member1")).isNull();
+    }
+
+    @DisplayName("팀 삭제 - 회원도 삭제, 회원의 사물함도 삭제")
+    @Test
+    void deleteTeamDelete() {
+        transactionTemplate.executeWithoutResult(status -> {
+            lockerRepository.assign("member1", "사물함1");
+            lockerRepository.assign("member2", "사물함2");
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            Member member1 = em.find(Member.class, "member1");
+            Locker locker2 = lockerRepository.findByMemberId("member2");
+            int affected = teamService.deleteTeam("team1", MemberHandling.DELETE);
+            assertThat(affected).isEqualTo(5);
+            assertThat(em.contains(member1)).isFalse();
+            assertThat(em.contains(locker2)).isFalse();
+            assertThat(em.find(Team.class, "team1")).isNull();
+        });
+        EntityManager em = emf.createEntityManager();
+        try {
+            assertThat(em.find(Member.class, "member1")).isNull();
+            assertThat(em.find(Locker.class, "member1")).isNull();
+            assertThat(em.find(Locker.class, "member2")).isNull();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("팀 삭제 - 회원도 삭제, 회원의 관심 상품 연결 행도 삭제 (상품은 남는다)")
+    @Test
+    void deleteTeamDeleteWithFavorites() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.persist(getProduct("product1", "상품1"));
+            em.persist(getProduct("product2", "상품2"));
+            em.flush();
+            favoriteRepository.link("member1", List.of("product1", "product2"));
+            favoriteRepository.link("member2", List.of("product1"));
+        });
+
+        int affected = teamService.deleteTeam("team1", MemberHandling.DELETE);
+
+        assertThat(affected).isEqualTo(5);
+        EntityManager em = emf.createEntityManager();
+        try {
+            assertThat(em.createNativeQuery("select count(*) from member_favorite").getSingleResult())
+                .isEqualTo(0L);
+            assertThat(em.find(Product.class, "product1")).isNotNull();
+        } finally {
+            em.close();
+        }
+    }
+
+    private String teamIdOf(String memberId) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            Team team = em.find(Member.class, memberId).getTeam();
+            return team == null ? null : team.getId();
+        } finally {
+            em.close();
+        }
+    }
+
+    // 새 EntityManager 에서 팀의 members (2차 캐시에 있으면 캐시에서)
+    private List<String> rosterOf(String teamId) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.find(Team.class, teamId).getMembers().stream()
+                .map(Member::getId)
+                .toList();
+        } finally {
+            em.close();
+        }
+    }
+
+    private Team getTeam(String id, String name) {
+        Team team = new Team();
+        team.setId(id);
+        team.setName(name);
+        return team;
+    }
+
+    private Product getProduct(String id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        return product;
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
@@ -0,0 +1,61 @@
+package hello.jpabook.startup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+@Slf4j
+@SpringBootTest(properties = "jpabook.startup.background-jpa-bootstrap=true")
+public class BackgroundJpaBootstrapTest {
+
+    @Autowired
+    ApplicationContext context;
+    @Autowired
+    EntityManagerFactory emf;
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("bootstrap-executor 로 만든 EntityManagerFactory - 처음 쓸 때 부트스트랩이 끝나기를 기다린다")
+    @Test
+    void bootstrapExecutor() {
+        AbstractEntityManagerFactoryBean factoryBean = context.getBean(AbstractEntityManagerFactoryBean.class);
+        assertThat(factoryBean.getBootstrapExecutor()).isNotNull();
+
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        Team team = new Team();
+        team.setId("team1");
+        team.setName("팀1");
+        em.persist(team);
+        tx.commit();
+        em.clear();
+        assertThat(em.find(Team.class, "team1").getName()).isEqualTo("팀1");
+        em.close();
+    }
+}
@@ -0,0 +1,47 @@
+package hello.jpabook.support;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 규모 테스트용 지연 시간 기록 - 같은 작업을 여러 번 재서 p50/p99/max 를 남긴다.
+ */
+public final class Latency {
+
+    private final String name;
+    private long[] nanos = new long[64];
+    private int size;
+
+    public Latency(String name) {
+        this.name = name;
+    }
+
+    public void record(Runnable work) {
+        long start = System.nanoTime();
+        work.run();
+        add(System.nanoTime() - start);
+    }
+
+    public void add(long elapsedNanos) {
+        if (size == nanos.length) {
+            nanos = Arrays.copyOf(nanos, size * 2);
+        }
+        nanos[size++] = elapsedNanos;
+    }
+
+    public double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(nanos, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(size - 1, Math.ceil(percentile * size) - 1);
+        return sorted[Math.max(index, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s : n=%d, p50=%.2fms, p99=%.2fms, max=%.2fms",
+            name, size, percentileMillis(0.5), percentileMillis(0.99), percentileMillis(1.0));
+    }
+}
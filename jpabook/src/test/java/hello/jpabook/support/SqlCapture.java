@@ -0,0 +1,95 @@
+package hello.jpabook.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 블록 안에서 실행된 sql 을 모아 종류별 개수, N+1 을 검증한다.
+ * <pre>
+ * SqlCapture.capture(sqlStatementMetrics, () -> team.getMembers().size())
+ *     .assertCount(Type.SELECT, 1)
+ *     .assertNoRepeatedSelects();
+ * </pre>
+ * 호출한 스레드에서 실행된 sql 만 모은다. (write-behind, 복제본 확인 같은 백그라운드 sql 제외)
+ * N+1 : 파라미터만 다르고 같은 select 가 두 번 이상 (리터럴, in 절 길이도 무시)
+ */
+public final class SqlCapture {
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    private SqlCapture() {
+    }
+
+    public static SqlCapture capture(SqlStatementMetrics metrics, Runnable block) {
+        SqlCapture capture = new SqlCapture();
+        Thread owner = Thread.currentThread();
+        Consumer<String> listener = sql -> {
+            if (Thread.currentThread() == owner) {
+                capture.statements.add(sql);
+            }
+        };
+        metrics.addListener(listener);
+        try {
+            block.run();
+        } finally {
+            metrics.removeListener(listener);
+        }
+        return capture;
+    }
+
+    public List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    public long count(Type type) {
+        return statements().stream().filter(sql -> Type.of(sql) == type).count();
+    }
+
+    /**
+     * 두 번 이상 실행된 select (정규화한 sql -> 횟수)
+     */
+    public Map<String, Long> repeatedSelects() {
+        return statements().stream()
+            .filter(sql -> Type.of(sql) == Type.SELECT)
+            .collect(Collectors.groupingBy(SqlCapture::normalize, LinkedHashMap::new, Collectors.counting()))
+            .entrySet().stream()
+            .filter(e -> e.getValue() > 1)
+            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    public SqlCapture assertCount(Type type, int expected) {
+        assertThat(count(type))
+            .as("%s statements:%n%s", type, String.join(System.lineSeparator(), statements()))
+            .isEqualTo(expected);
+        return this;
+    }
+
+    public SqlCapture assertNoRepeatedSelects() {
+        assertThat(repeatedSelects()).as("repeated selects (N+1)").isEmpty();
+        return this;
+    }
+
+    static String normalize(String sql) {
+        String normalized = COMMENT.matcher(sql).replaceAll(" ");
+        normalized = STRING.matcher(normalized).replaceAll("?");
+        normalized = NUMBER.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim().toLowerCase();
+    }
+}
@@ -0,0 +1,121 @@
+package hello.jpabook.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.jpabook.Member;
+import hello.jpabook.SqlStatementMetrics;
+import hello.jpabook.SqlStatementMetrics.Type;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@Slf4j
+@SpringBootTest
+public class SqlCaptureTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    SqlStatementMetrics sqlStatementMetrics;
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int i = 1; i <= 3; i++) {
+            em.persist(getMember("member" + i, "회원" + i, i * 10));
+        }
+        tx.commit();
+        em.close();
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("정규화 - 주석, 리터럴, in 절 길이, 공백 무시")
+    @Test
+    void normalize() {
+        assertThat(SqlCapture.normalize("/* load */ select m1_0.id from member m1_0 where m1_0.age > 10"))
+            .isEqualTo(SqlCapture.normalize("select m1_0.id   from member m1_0\n where m1_0.age > 20"));
+        assertThat(SqlCapture.normalize("select * from member where id in (?, ?, ?)"))
+            .isEqualTo(SqlCapture.normalize("select * from member where id in (?)"));
+        assertThat(SqlCapture.normalize("select * from member where username = 'a'"))
+            .isEqualTo("select * from member where username = ?");
+    }
+
+    @DisplayName("종류별 개수")
+    @Test
+    void count() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        SqlCapture capture = SqlCapture.capture(sqlStatementMetrics, () -> {
+            em.persist(getMember("member4", "회원4", 40));
+            em.createQuery("update Member m set m.age = m.age + 1 where m.id = :id")
+                .setParameter("id", "member1")
+                .executeUpdate();
+            em.createQuery("select m from Member m", Member.class).getResultList();
+        });
+        tx.commit();
+        em.close();
+
+        // 벌크 update 전에 flush (insert)
+        capture.assertCount(Type.INSERT, 1)
+            .assertCount(Type.UPDATE, 1)
+            .assertCount(Type.SELECT, 1)
+            .assertCount(Type.DELETE, 0)
+            .assertNoRepeatedSelects();
+    }
+
+    @DisplayName("N+1 - 파라미터만 다른 select 반복")
+    @Test
+    void repeatedSelects() {
+        EntityManager em = emf.createEntityManager();
+        try {
+            SqlCapture capture = SqlCapture.capture(sqlStatementMetrics, () -> {
+                for (int i = 1; i <= 3; i++) {
+                    em.createQuery("select m from Member m where m.id = :id", Member.class)
+                        .setParameter("id", "member" + i)
+                        .getSingleResult();
+                }
+            });
+
+            assertThat(capture.repeatedSelects()).hasSize(1).containsValue(3L);
+            assertThatThrownBy(capture::assertNoRepeatedSelects)
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("N+1");
+        } finally {
+            em.close();
+        }
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}
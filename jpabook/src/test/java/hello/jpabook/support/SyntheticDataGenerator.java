@@ -0,0 +1,234 @@
+package hello.jpabook.support;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import hello.jpabook.MemberBulkLoader.TeamRow;
+import hello.jpabook.MemberProduct;
+import hello.jpabook.MemberProductId;
+import hello.jpabook.Order;
+import hello.jpabook.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+
+/**
+ * 규모 테스트용 데이터 생성 - 같은 seed 면 항상 같은 데이터
+ * <p>
+ * 팀 크기 : Zipf (team0 이 가장 크고 몇 개 팀에 회원이 몰린다.), 팀 없는 회원 1%
+ * 나이 : 15 ~ 74 균등
+ * 주문 : 회원, 상품 모두 Zipf (소수의 헤비 유저, 인기 상품)
+ * 회원-상품 : 회원마다 서로 다른 상품 1 ~ 20 개 (개수도 Zipf)
+ * <p>
+ * 행은 Stream 으로 하나씩 만들어지므로 수백만 건이어도 메모리에 쌓이지 않는다.
+ * Team, Member 는 MemberBulkLoader, Product 는 StatelessSession + JDBC batch 로 적재한다.
+ * Order, MemberProduct 는 EntityManager + JDBC batch (batchSize 마다 flush & clear) :
+ * Member 에 @Version 이 있어서 식별자만 가진 Member 는 StatelessSession insert 에서 저장 전(transient)으로 보인다.
+ * 적재할 때 프록시(getReference)로 바꿔서 select 없이 외래 키만 쓴다.
+ * <p>
+ * 테스트 전용 - 쓰는 테스트가 @Import(SyntheticDataGenerator.class) 로 등록한다.
+ */
+public class SyntheticDataGenerator {
+
+    /**
+     * @param teamSkew Zipf 지수 - 클수록 큰 팀에 몰린다. (1.0 : team0 이 전체의 약 1/ln(teams))
+     */
+    public record Spec(long seed, int teams, int members, int products, int orders, int memberProducts,
+                       double teamSkew) {
+
+        public static Spec of(long seed, int members) {
+            return new Spec(seed, Math.max(1, members / 2_000), members, Math.max(1, members / 200),
+                members / 2, members / 4, 1.1);
+        }
+    }
+
+    public record Counts(long teams, long members, long products, long orders, long memberProducts) {
+    }
+
+    private static final double NO_TEAM = 0.01;
+    private static final int MAX_PRODUCTS_PER_MEMBER = 20;
+
+    private final EntityManagerFactory emf;
+    private final MemberBulkLoader loader;
+    private final int batchSize;
+
+    public SyntheticDataGenerator(EntityManagerFactory emf, MemberBulkLoader loader,
+        @Value("${jpabook.bulk.batch-size:1000}") int batchSize) {
+        this.emf = emf;
+        this.loader = loader;
+        this.batchSize = batchSize;
+    }
+
+    public Counts load(Spec spec) {
+        loader.load(teams(spec), members(spec), Mode.STATELESS_SESSION);
+        long products = insert(products(spec));
+        long orders = persist(orders(spec), (em, order) -> {
+            order.setMember(em.getReference(Member.class, order.getMember().getId()));
+            order.setProduct(em.getReference(Product.class, order.getProduct().getId()));
+        });
+        long memberProducts = persist(memberProducts(spec), (em, memberProduct) -> {
+            memberProduct.setMember(em.getReference(Member.class, memberProduct.getMember().getId()));
+            memberProduct.setProduct(em.getReference(Product.class, memberProduct.getProduct().getId()));
+        });
+        return new Counts(spec.teams(), spec.members(), products, orders, memberProducts);
+    }
+
+    public static Stream<TeamRow> teams(Spec spec) {
+        return IntStream.range(0, spec.teams()).mapToObj(i -> new TeamRow(teamId(i), "팀" + i));
+    }
+
+    public static Stream<MemberRow> members(Spec spec) {
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        ZipfDistribution teamSize = new ZipfDistribution(spec.teams(), spec.teamSkew());
+        return IntStream.range(0, spec.members()).mapToObj(i -> {
+            String teamId = random.nextDouble() < NO_TEAM ? null : teamId(teamSize.sample(random) - 1);
+            return new MemberRow(memberId(i), "회원" + i, 15 + random.nextInt(60), teamId);
+        });
+    }
+
+    public static Stream<Product> products(Spec spec) {
+        return IntStream.range(0, spec.products()).mapToObj(i -> {
+            Product product = new Product();
+            product.setId(productId(i));
+            product.setName("상품" + i);
+            return product;
+        });
+    }
+
+    public static Stream<Order> orders(Spec spec) {
+        SplittableRandom random = new SplittableRandom(spec.seed() + 1);
+        ZipfDistribution buyer = new ZipfDistribution(spec.members(), 1.0);
+        ZipfDistribution popular = new ZipfDistribution(spec.products(), 1.0);
+        return IntStream.range(0, spec.orders()).mapToObj(i -> {
+            Order order = new Order();
+            order.setMember(memberStub(buyer.sample(random) - 1));
+            order.setProduct(productStub(popular.sample(random) - 1));
+            order.setOrderAmount(1 + random.nextInt(5));
+            return order;
+        });
+    }
+
+    /**
+     * (회원, 상품) 쌍은 겹치지 않는다 : 회원 m 의 상품은 base, base + stride, base + 2 * stride ... (mod products)
+     */
+    public static Stream<MemberProduct> memberProducts(Spec spec) {
+        SplittableRandom random = new SplittableRandom(spec.seed() + 2);
+        int products = spec.products();
+        int perMemberLimit = Math.min(products, MAX_PRODUCTS_PER_MEMBER);
+        ZipfDistribution perMember = new ZipfDistribution(perMemberLimit, 1.0);
+        int stride = coprimeStride(products);
+        return IntStream.range(0, spec.members())
+            .boxed()
+            .flatMap(m -> {
+                int base = random.nextInt(products);
+                int count = perMember.sample(random);
+                int amount = 1 + random.nextInt(5);
+                return IntStream.range(0, count).mapToObj(p -> {
+                    MemberProduct memberProduct = new MemberProduct();
+                    int product = (int) ((base + (long) p * stride) % products);
+                    memberProduct.setId(new MemberProductId(memberId(m), productId(product)));
+                    memberProduct.setMember(memberStub(m));
+                    memberProduct.setProduct(productStub(product));
+                    memberProduct.setOrderAmount(amount);
+                    return memberProduct;
+                });
+            })
+            .limit(spec.memberProducts());
+    }
+
+    public static String teamId(int i) {
+        return "team" + i;
+    }
+
+    public static String memberId(int i) {
+        return "member" + i;
+    }
+
+    public static String productId(int i) {
+        return "product" + i;
+    }
+
+    // 식별자만 가진 엔티티 : 적재할 때 getReference 프록시로 바꾼다.
+    private static Member memberStub(int i) {
+        Member member = new Member();
+        member.setId(memberId(i));
+        return member;
+    }
+
+    private static Product productStub(int i) {
+        Product product = new Product();
+        product.setId(productId(i));
+        return product;
+    }
+
+    private static int coprimeStride(int n) {
+        int stride = Math.max(1, n / 3 + 1);
+        while (gcd(stride, n) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    private <T> long insert(Stream<T> rows) {
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            Transaction tx = session.beginTransaction();
+            try {
+                long count = 0;
+                Iterator<T> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    session.insert(iterator.next());
+                    count++;
+                }
+                tx.commit();
+                return count;
+            } catch (RuntimeException e) {
+                tx.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private <T> long persist(Stream<T> rows, BiConsumer<EntityManager, T> references) {
+        EntityManager em = emf.createEntityManager();
+        em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            long count = 0;
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                references.accept(em, row);
+                em.persist(row);
+                if (++count % batchSize == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            tx.commit();
+            return count;
+        } catch (RuntimeException e) {
+            tx.rollback();
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+}
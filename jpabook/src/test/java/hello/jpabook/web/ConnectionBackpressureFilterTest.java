@@ -0,0 +1,53 @@
+package hello.jpabook.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class ConnectionBackpressureFilterTest {
+
+    @DisplayName("permit 을 모두 쓰면 대기 후 503, 끝나면 반납")
+    @Test
+    void reject() throws Exception {
+        ConnectionBackpressureFilter filter = new ConnectionBackpressureFilter(1, Duration.ofMillis(50));
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        entered.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        holder.start();
+        entered.await();
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), rejected, new MockFilterChain());
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+
+        release.countDown();
+        holder.join();
+        assertThat(filter.availablePermits()).isEqualTo(1);
+
+        MockHttpServletResponse accepted = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(), accepted, new MockFilterChain());
+        assertThat(accepted.getStatus()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,134 @@
+package hello.jpabook.web;
+
+import hello.jpabook.MemberBulkLoader;
+import hello.jpabook.MemberBulkLoader.MemberRow;
+import hello.jpabook.MemberBulkLoader.Mode;
+import hello.jpabook.MemberBulkLoader.TeamRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * ./gradlew scaleTest : 동시 클라이언트 1000 개로 GET /members/{id} 부하
+ * 플랫폼 스레드(tomcat 200) vs 가상 스레드 처리량, p99 지연 시간, 503 수를 로그로 비교한다.
+ */
+@Slf4j
+@Tag("scale")
+public abstract class HttpLoadScaleTest {
+
+    static final int CLIENTS = 1_000;
+    static final int REQUESTS_PER_CLIENT = 50;
+    static final int MEMBERS = 10_000;
+
+    @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=false")
+    static class PlatformThreads extends HttpLoadScaleTest {
+    }
+
+    @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+    static class VirtualThreads extends HttpLoadScaleTest {
+    }
+
+    @LocalServerPort
+    int port;
+    @Autowired
+    MemberBulkLoader loader;
+    @Autowired
+    EntityManagerFactory emf;
+
+    @BeforeEach
+    void setup() {
+        loader.load(Stream.of(new TeamRow("team1", "팀1")),
+            IntStream.range(0, MEMBERS).mapToObj(i -> new MemberRow("member" + i, "회원" + i, i % 100, "team1")),
+            Mode.STATELESS_SESSION);
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    void load() throws Exception {
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger index = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        // 클라이언트 쪽은 항상 가상 스레드 - 서버 쪽 스레드 모델만 달라진다.
+        long elapsed;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().executor(clients).build()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.submit(() -> {
+                    start.await();
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        String id = "member" + ThreadLocalRandom.current().nextInt(MEMBERS);
+                        HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/members/" + id)).build();
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 503) {
+                                rejected.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                        latencies[index.getAndIncrement()] = System.nanoTime() - begin;
+                    }
+                    return null;
+                });
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            clients.shutdown();
+            clients.awaitTermination(10, TimeUnit.MINUTES);
+            elapsed = System.nanoTime() - begin;
+        }
+
+        Arrays.sort(latencies);
+        log.info("{} : {} requests, {} req/s, p50={}ms, p99={}ms, 503={}, failed={}",
+            getClass().getSimpleName(), latencies.length,
+            latencies.length * 1_000_000_000L / elapsed,
+            latencies[latencies.length / 2] / 1_000_000,
+            latencies[(int) (latencies.length * 0.99)] / 1_000_000,
+            rejected.get(), failed.get());
+    }
+}
@@ -0,0 +1,128 @@
+package hello.jpabook.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+public class MemberControllerTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MockMvc mockMvc;
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("회원 가입 -> 조회 -> 수정 -> 삭제")
+    @Test
+    void crud() throws Exception {
+        mockMvc.perform(post("/teams").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"team1\",\"name\":\"팀1\"}"))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/members").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"member1\",\"username\":\"회원1\",\"age\":10,\"teamId\":\"team1\"}"))
+            .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/members/member1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.username").value("회원1"))
+            .andExpect(jsonPath("$.teamName").value("팀1"));
+
+        mockMvc.perform(patch("/members/member1").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"age\":11}"))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(get("/members/member1"))
+            .andExpect(jsonPath("$.age").value(11));
+
+        mockMvc.perform(delete("/members/member1"))
+            .andExpect(status().isNoContent());
+        mockMvc.perform(get("/members/member1"))
+            .andExpect(status().isNotFound());
+    }
+
+    @DisplayName("회원 가입 - id 없음, 없는 팀은 400, 이미 있는 id 는 409")
+    @Test
+    void joinValidation() throws Exception {
+        mockMvc.perform(post("/members").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"회원1\",\"age\":10}"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/members").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"member1\",\"username\":\"회원1\",\"teamId\":\"nowhere\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("unknown team: nowhere"));
+
+        mockMvc.perform(post("/members").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"member1\",\"username\":\"회원1\"}"))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/members").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"member1\",\"username\":\"회원2\"}"))
+            .andExpect(status().isConflict());
+        mockMvc.perform(get("/members/member1"))
+            .andExpect(jsonPath("$.username").value("회원1"));
+    }
+
+    @DisplayName("잘못된 페이지 토큰, 크기는 400")
+    @Test
+    void invalidPage() throws Exception {
+        mockMvc.perform(get("/members").param("sort", "AGE").param("page", "not-a-token"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("invalid page token: not-a-token"));
+        mockMvc.perform(get("/members").param("sort", "AGE").param("size", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("팀 명단, 회원 이동")
+    @Test
+    void transfer() throws Exception {
+        for (String team : new String[]{"team1", "team2"}) {
+            mockMvc.perform(post("/teams").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"" + team + "\",\"name\":\"" + team + "\"}"));
+        }
+        mockMvc.perform(post("/members").contentType(MediaType.APPLICATION_JSON)
+            .content("{\"id\":\"member1\",\"username\":\"회원1\",\"age\":10,\"teamId\":\"team1\"}"));
+
+        mockMvc.perform(post("/teams/team2/transfers").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromTeamId\":\"team1\",\"memberIds\":[\"member1\"]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.moved").value(1));
+
+        mockMvc.perform(get("/teams/team1/members"))
+            .andExpect(jsonPath("$.content.length()").value(0));
+        mockMvc.perform(get("/teams/team2/members"))
+            .andExpect(jsonPath("$.content[0].id").value("member1"));
+    }
+}
@@ -0,0 +1,82 @@
+package hello.jpabook.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+@Slf4j
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TeamControllerTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setup() throws Exception {
+        mockMvc.perform(post("/teams").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"team1\",\"name\":\"팀1\"}"))
+            .andExpect(status().isCreated());
+        mockMvc.perform(post("/members").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"member1\",\"username\":\"회원1\",\"age\":10,\"teamId\":\"team1\"}"))
+            .andExpect(status().isCreated());
+    }
+
+    @AfterEach
+    void close() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            em.createQuery("delete from Team t").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("회원 이동 - memberIds 없음은 400")
+    @Test
+    void transferWithoutMemberIds() throws Exception {
+        mockMvc.perform(post("/teams/team1/transfers").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromTeamId\":\"team1\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("member ids are required"));
+        mockMvc.perform(post("/teams/team1/transfers").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromTeamId\":\"team1\",\"memberIds\":[]}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("회원 이동 - 없는 팀으로는 400 (커밋 때 외래 키 위반 409 가 아니라)")
+    @Test
+    void transferToUnknownTeam() throws Exception {
+        mockMvc.perform(post("/teams/nowhere/transfers").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromTeamId\":\"team1\",\"memberIds\":[\"member1\"]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("unknown team: nowhere"));
+
+        mockMvc.perform(get("/teams/team1/members"))
+            .andExpect(jsonPath("$.content[0].id").value("member1"));
+    }
+}
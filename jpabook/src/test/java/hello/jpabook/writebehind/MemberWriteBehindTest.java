@@ -0,0 +1,291 @@
+package hello.jpabook.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import hello.jpabook.Member;
+import hello.jpabook.MemberWriteBehind;
+import hello.jpabook.WriteBehindProperties;
+import hello.jpabook.WriteBehindProperties.OverflowPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 주기 반영은 꺼 두고(flush-interval=1h) flush() 로 직접 반영
+ */
+@Slf4j
+@SpringBootTest(properties = {
+    "jpabook.write-behind.enabled=true",
+    "jpabook.write-behind.flush-interval=1h",
+    "jpabook.write-behind.capacity=3",
+    "jpabook.write-behind.max-attempts=3",
+    "jpabook.write-behind.overflow-policy=reject"
+})
+public class MemberWriteBehindTest {
+
+    @Autowired
+    EntityManagerFactory emf;
+    @Autowired
+    MemberWriteBehind writeBehind;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setup() {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        for (int i = 1; i <= 5; i++) {
+            em.persist(getMember("member" + i, "회원" + i, i * 10));
+        }
+        tx.commit();
+        em.close();
+    }
+
+    @AfterEach
+    void close() {
+        writeBehind.flush();
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        tx.begin();
+        try {
+            em.createQuery("delete from Member m").executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            log.info("error", e);
+            tx.rollback();
+        } finally {
+            em.close();
+        }
+    }
+
+    @DisplayName("같은 회원의 수정은 하나로 합쳐서 반영")
+    @Test
+    void coalesce() {
+        double coalesced = updates("coalesced");
+        writeBehind.update("member1", null, 11);
+        writeBehind.update("member1", "이름변경", null);
+        writeBehind.update("member1", null, 12);
+        writeBehind.update("member2", null, 21);
+        assertThat(writeBehind.depth()).isEqualTo(2);
+
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        writeBehind.flush();
+
+        assertThat(writeBehind.depth()).isZero();
+        assertThat(updates("coalesced") - coalesced).isEqualTo(2);
+        // 트랜잭션 한 번
+        assertThat(statistics.getTransactionCount()).isEqualTo(1);
+        Member member1 = find("member1");
+        assertThat(member1.getUsername()).isEqualTo("이름변경");
+        assertThat(member1.getAge()).isEqualTo(12);
+        assertThat(find("member2").getAge()).isEqualTo(21);
+    }
+
+    @DisplayName("가득 차면 거절, 이미 있는 회원은 합쳐진다")
+    @Test
+    void reject() {
+        assertThat(writeBehind.update("member1", null, 1)).isTrue();
+        assertThat(writeBehind.update("member2", null, 2)).isTrue();
+        assertThat(writeBehind.update("member3", null, 3)).isTrue();
+
+        assertThat(writeBehind.update("member4", null, 4)).isFalse();
+        assertThat(writeBehind.update("member1", null, 5)).isTrue();
+
+        writeBehind.flush();
+        assertThat(find("member1").getAge()).isEqualTo(5);
+        assertThat(find("member4").getAge()).isEqualTo(40);
+    }
+
+    @DisplayName("없는 회원의 수정은 버리고 나머지는 반영")
+    @Test
+    void missing() {
+        double dropped = meterRegistry.get("jpabook.write-behind.dropped").counter().count();
+        writeBehind.update("member1", null, 99);
+        writeBehind.update("nobody", null, 1);
+
+        writeBehind.flush();
+
+        assertThat(find("member1").getAge()).isEqualTo(99);
+        assertThat(meterRegistry.get("jpabook.write-behind.dropped").counter().count() - dropped)
+            .isEqualTo(1);
+    }
+
+    @DisplayName("반영 실패 - 한 명씩 다시 시도하고 다음 반영에서 재시도, max-attempts 를 넘으면 버린다. 나머지는 반영")
+    @Test
+    void retryThenDrop() {
+        double dropped = meterRegistry.get("jpabook.write-behind.dropped").counter().count();
+        // username 컬럼(varchar 255)보다 길다 -> 매번 실패
+        writeBehind.update("member1", "x".repeat(300), 11);
+        writeBehind.update("member2", null, 21);
+
+        // 실패한 수정은 같은 반영에서 다시 시도하지 않는다.
+        writeBehind.flush();
+        assertThat(find("member2").getAge()).isEqualTo(21);
+        assertThat(writeBehind.depth()).isEqualTo(1);
+
+        writeBehind.flush();
+        assertThat(writeBehind.depth()).isEqualTo(1);
+        writeBehind.flush();
+
+        assertThat(writeBehind.depth()).isZero();
+        assertThat(find("member1").getAge()).isEqualTo(10);
+        assertThat(meterRegistry.get("jpabook.write-behind.dropped").counter().count() - dropped)
+            .isEqualTo(1);
+    }
+
+    @DisplayName("잠깐의 DB 장애 - 재시도는 backoff 뒤 다음 주기에, 장애가 끝나면 반영되고 버리지 않는다")
+    @Test
+    void transientFailureRecovers() throws Exception {
+        AtomicBoolean outage = new AtomicBoolean(true);
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionTemplate flaky = new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+                attempts.incrementAndGet();
+                if (outage.get()) {
+                    throw new IllegalStateException("database unavailable");
+                }
+                return super.execute(action);
+            }
+        };
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setFlushInterval(Duration.ofMillis(10));
+        properties.setRetryBackoff(Duration.ofMillis(300));
+        properties.setMaxAttempts(3);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MemberWriteBehind retrying = new MemberWriteBehind(flaky,
+            SharedEntityManagerCreator.createSharedEntityManager(emf), properties, registry);
+        retrying.start();
+        try {
+            retrying.update("member1", null, 11);
+            // 첫 시도 : 배치 + 한 명씩 = 2번 실패
+            awaitUntil(() -> attempts.get() >= 2);
+            Thread.sleep(100);
+            // 주기(10ms)가 여러 번 지나도 backoff(300ms) 전에는 다시 시도하지 않는다.
+            assertThat(attempts.get()).isEqualTo(2);
+            assertThat(retrying.depth()).isEqualTo(1);
+
+            outage.set(false);
+            awaitUntil(() -> find("member1").getAge() == 11);
+        } finally {
+            retrying.close();
+        }
+
+        assertThat(retrying.depth()).isZero();
+        assertThat(registry.get("jpabook.write-behind.dropped").counter().count()).isZero();
+    }
+
+    @DisplayName("가득 차서 호출자가 반영해도 이미 꺼내진 같은 회원의 이전 수정보다 늦게 커밋된다")
+    @Test
+    void callerRunsAfterInFlightBatch() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean first = new AtomicBoolean(true);
+        // 첫 반영 트랜잭션 (member1 의 이전 수정을 꺼낸 배치) 을 release 까지 멈춘다.
+        TransactionTemplate gated = new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+                if (first.compareAndSet(true, false)) {
+                    inFlight.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return super.execute(action);
+            }
+        };
+        WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setCapacity(1);
+        properties.setOverflowPolicy(OverflowPolicy.CALLER_RUNS);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MemberWriteBehind callerRuns = new MemberWriteBehind(gated,
+            SharedEntityManagerCreator.createSharedEntityManager(emf), properties, registry);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            callerRuns.update("member1", null, 11);
+            Future<?> drain = executor.submit(callerRuns::flush);
+            assertThat(inFlight.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // member2 가 자리를 차지 -> member1 의 새 수정은 가득 차서 호출자가 반영
+            callerRuns.update("member2", null, 21);
+            Future<Boolean> caller = executor.submit(() -> callerRuns.update("member1", null, 12));
+            // 진행 중인 배치가 끝날 때까지 기다린다.
+            assertThatThrownBy(() -> caller.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+            release.countDown();
+            drain.get(5, TimeUnit.SECONDS);
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            callerRuns.close();
+        }
+
+        // 새 값이 이긴다.
+        assertThat(find("member1").getAge()).isEqualTo(12);
+        assertThat(find("member2").getAge()).isEqualTo(21);
+        assertThat(registry.get("jpabook.write-behind.updates").tag("result", "caller_runs").counter().count())
+            .isEqualTo(1);
+    }
+
+    private void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("timed out").isNegative();
+            Thread.sleep(10);
+        }
+    }
+
+    private double updates(String result) {
+        return meterRegistry.get("jpabook.write-behind.updates").tag("result", result).counter().count();
+    }
+
+    private Member find(String id) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.find(Member.class, id);
+        } finally {
+            em.close();
+        }
+    }
+
+    private Member getMember(String id, String username, Integer age) {
+        Member member = new Member();
+        member.setId(id);
+        member.setUsername(username);
+        member.setAge(age);
+        return member;
+    }
+}